@@ -0,0 +1,199 @@
+package org.example;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * The state of many DiceGame games at once, stored as primitive arrays indexed by game * 3 + player,
+ * so a turn of every game is played without allocating. {@link #toGame(int)} and {@link #load(int, Game)}
+ * convert a single game from and to the {@link Game}/{@link Player} objects the tests use.
+ */
+final class DiceBatch {
+    static final int PLAYERS = 3;
+    static final String[] COLORS = {"red", "green", "blue", "yellow", "purple"};
+    static final byte RED = 0, GREEN = 1, BLUE = 2, YELLOW = 3, PURPLE = 4;
+
+    /**
+     * The skip and re-roll decisions of {@link TurnPolicy}, asked with indices instead of objects.
+     */
+    interface Policy {
+        boolean skip(DiceBatch batch, int game, int player);
+
+        boolean reroll(DiceBatch batch, int game, int player);
+
+        Policy NEVER = of(false, false);
+        Policy ALWAYS_REROLL = of(false, true);
+
+        static Policy of(boolean skip, boolean reroll) {
+            return new Policy() {
+                @Override
+                public boolean skip(DiceBatch batch, int game, int player) {
+                    return skip;
+                }
+
+                @Override
+                public boolean reroll(DiceBatch batch, int game, int player) {
+                    return reroll;
+                }
+            };
+        }
+    }
+
+    final int games;
+    final int[] points;
+    final byte[] colors;
+    // Last three rolls of each player, oldest in bits 16-23; a roll is at most 5 * 6
+    final int[] lastRolls;
+    // Player indices in turn order, three per game
+    final int[] turnOrder;
+    final int[] turnCount;
+    final boolean[] gameOver;
+
+    DiceBatch(int games) {
+        this.games = games;
+        points = new int[games * PLAYERS];
+        colors = new byte[games * PLAYERS];
+        lastRolls = new int[games * PLAYERS];
+        turnOrder = new int[games * PLAYERS];
+        turnCount = new int[games];
+        gameOver = new boolean[games];
+    }
+
+    // Same state and random draws as Game.initializeGame
+    void reset(int game, SplittableRandom random) {
+        int base = game * PLAYERS;
+        for (int player = 0; player < PLAYERS; player++) {
+            points[base + player] = 0;
+            colors[base + player] = (byte) player;
+            lastRolls[base + player] = 0;
+            turnOrder[base + player] = player;
+        }
+        for (int i = PLAYERS - 1; i > 0; i--) {
+            int j = base + random.nextInt(i + 1);
+            int swap = turnOrder[base + i];
+            turnOrder[base + i] = turnOrder[j];
+            turnOrder[j] = swap;
+        }
+        turnCount[game] = 0;
+        gameOver[game] = false;
+    }
+
+    void resetAll(SplittableRandom random) {
+        for (int game = 0; game < games; game++) {
+            reset(game, random);
+        }
+    }
+
+    int currentPlayer(int game) {
+        return turnOrder[game * PLAYERS + turnCount[game] % PLAYERS];
+    }
+
+    /**
+     * Plays one turn of every running game, following {@link Game#playTurn(TurnPolicy)}.
+     * Returns the number of games still running.
+     */
+    int step(Policy policy, SplittableRandom random) {
+        int running = 0;
+        for (int game = 0; game < games; game++) {
+            if (gameOver[game]) {
+                continue;
+            }
+            int player = currentPlayer(game);
+            if (policy.skip(this, game, player)) {
+                gameOver[game] = ++turnCount[game] >= Game.MAX_TURNS;
+            } else {
+                int diceValue = random.nextInt(6) + 1;
+                while (diceValue == 1 && policy.reroll(this, game, player)) {
+                    diceValue = random.nextInt(6) + 1;
+                }
+                if (diceValue == 5) {
+                    diceValue *= random.nextInt(6) + 1;
+                }
+                updatePoints(game * PLAYERS + player, diceValue);
+                turnCount[game]++;
+                gameOver[game] = checkGameEndConditions(game);
+            }
+            if (!gameOver[game]) {
+                running++;
+            }
+        }
+        return running;
+    }
+
+    // Player.updatePoints
+    private void updatePoints(int slot, int diceValue) {
+        int rolls = (lastRolls[slot] << 8 | diceValue) & 0xFFFFFF;
+        lastRolls[slot] = rolls;
+        if (rolls >>> 16 == (rolls >>> 8 & 0xFF) && (rolls >>> 8 & 0xFF) == (rolls & 0xFF)) {
+            points[slot] = 0;
+        } else if (diceValue == 2) {
+            points[slot] += diceValue * 3;
+        } else if (diceValue % 2 == 0) {
+            points[slot] += diceValue / 2;
+        } else {
+            points[slot] += diceValue;
+        }
+        if (points[slot] > 11) {
+            colors[slot] = PURPLE;
+        } else if (points[slot] > 5) {
+            colors[slot] = YELLOW;
+        }
+    }
+
+    // Game.checkGameEndConditions: Game.MAX_TURNS turns, or one player more than 10 points ahead of both others
+    boolean checkGameEndConditions(int game) {
+        if (turnCount[game] >= Game.MAX_TURNS) {
+            return true;
+        }
+        int base = game * PLAYERS;
+        int a = points[base], b = points[base + 1], c = points[base + 2];
+        return a > Math.max(b, c) + 10 || b > Math.max(a, c) + 10 || c > Math.max(a, b) + 10;
+    }
+
+    // Game.winner: the player with the highest score, or -1 if it is shared
+    int winner(int game) {
+        int base = game * PLAYERS;
+        int winner = 0;
+        for (int player = 1; player < PLAYERS; player++) {
+            if (points[base + player] > points[base + winner]) {
+                winner = player;
+            }
+        }
+        for (int player = 0; player < PLAYERS; player++) {
+            if (player != winner && points[base + player] == points[base + winner]) {
+                return -1;
+            }
+        }
+        return winner;
+    }
+
+    Game toGame(int game) {
+        int base = game * PLAYERS;
+        Game view = new Game();
+        for (int player = 0; player < PLAYERS; player++) {
+            Player p = new Player("Player " + (player + 1));
+            p.points = points[base + player];
+            p.pointColor = COLORS[colors[base + player]];
+            int rolls = lastRolls[base + player];
+            p.consecutiveRolls = new int[]{rolls >>> 16, rolls >>> 8 & 0xFF, rolls & 0xFF};
+            view.players.add(p);
+            view.turnOrder.add(turnOrder[base + player]);
+        }
+        view.turnCount = turnCount[game];
+        view.gameOver = gameOver[game];
+        return view;
+    }
+
+    void load(int game, Game source) {
+        int base = game * PLAYERS;
+        for (int player = 0; player < PLAYERS; player++) {
+            Player p = source.players.get(player);
+            points[base + player] = p.points;
+            colors[base + player] = (byte) Arrays.asList(COLORS).indexOf(p.pointColor);
+            lastRolls[base + player] = p.consecutiveRolls[0] << 16 | p.consecutiveRolls[1] << 8 | p.consecutiveRolls[2];
+            turnOrder[base + player] = source.turnOrder.get(player);
+        }
+        turnCount[game] = source.turnCount;
+        gameOver[game] = source.gameOver;
+    }
+}
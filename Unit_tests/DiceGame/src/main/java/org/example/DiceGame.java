@@ -89,12 +89,22 @@ class Player {
 }
 
 class Game {
+    // Requirement 7 - the game ends after 12 turns
+    static final int MAX_TURNS = 12;
+
     List<Player> players;
     List<Integer> turnOrder;
     int turnCount;
     boolean gameOver;
+    // One generator per game; split() it to seed games running in parallel
+    final SplittableRandom random;
 
     Game() {
+        this(new SplittableRandom());
+    }
+
+    Game(SplittableRandom random) {
+        this.random = random;
         players = new ArrayList<>();
         turnOrder = new ArrayList<>();
         turnCount = 0;
@@ -103,6 +113,7 @@ class Game {
 
     void initializeGame() {
         Scanner scanner = new Scanner(System.in);
+        List<String> names = new ArrayList<>();
 
         // Handle requirement 17 - player names
         for (int i = 1; i <= 3; i++) {
@@ -113,7 +124,14 @@ class Game {
                 System.out.print("Enter name for player " + i + ": ");
                 name = scanner.nextLine();
             }
-            Player player = new Player(name);
+            names.add(name);
+        }
+        initializeGame(names);
+    }
+
+    void initializeGame(List<String> names) {
+        for (int i = 1; i <= names.size(); i++) {
+            Player player = new Player(names.get(i - 1));
 
             // Handle requirement 11 - initial colors
             switch (i) {
@@ -127,7 +145,7 @@ class Game {
         }
 
         // Handle requirement 16 - random initial turn order
-        Collections.shuffle(turnOrder);
+        shuffle(turnOrder, random);
     }
 
     void manageTurn() {
@@ -203,13 +221,46 @@ class Game {
         }
     }
 
+    // The rules of manageTurn without console I/O; the policy makes the skip and re-roll decisions
+    void playTurn(TurnPolicy policy) {
+        if (gameOver) return;
+
+        Player currentPlayer = players.get(turnOrder.get(turnCount % 3));
+        if (policy.skip(this, currentPlayer)) {
+            turnCount++;
+            // A skipped turn still counts towards the 12 (requirement 7), or an always-skip policy never ends
+            gameOver = turnCount >= MAX_TURNS;
+            return;
+        }
+
+        int diceValue = rollDice();
+        // Requirement 9 - a first roll of 1 may be re-rolled, requirement 18 - a first 5 is multiplied
+        while (diceValue == 1 && policy.reroll(this, currentPlayer)) {
+            diceValue = rollDice();
+        }
+        if (diceValue == 5) {
+            diceValue *= rollDice();
+        }
+        currentPlayer.updatePoints(diceValue);
+
+        turnCount++;
+        gameOver = checkGameEndConditions();
+    }
+
     int rollDice() {
-        return new Random().nextInt(6) + 1;
+        return random.nextInt(6) + 1;
+    }
+
+    // Collections.shuffle only takes a java.util.Random
+    static void shuffle(List<Integer> list, SplittableRandom random) {
+        for (int i = list.size() - 1; i > 0; i--) {
+            Collections.swap(list, i, random.nextInt(i + 1));
+        }
     }
 
     boolean checkGameEndConditions() {
         // Handle requirement 7 - 12 turns
-        if (turnCount >= 12) {
+        if (turnCount >= MAX_TURNS) {
             return true;
         }
 
@@ -244,6 +295,17 @@ class Game {
             System.out.println(p.name + ": " + p.points + " points");
         }
 
+        Player winner = winner();
+        if (winner != null) {
+            // Handle requirement 10 - winner message
+            System.out.println("Congratulations " + winner.name + " you won the game! You are the best!");
+        } else {
+            System.out.println("The game ended in a tie!");
+        }
+    }
+
+    // Returns null if the highest score is shared
+    Player winner() {
         // Find winner (requirement 24)
         Player winner = players.get(0);
         for (Player p : players) {
@@ -253,20 +315,12 @@ class Game {
         }
 
         // Check for ties (requirement 22)
-        boolean isTie = false;
         for (Player p : players) {
             if (p != winner && p.points == winner.points) {
-                isTie = true;
-                break;
+                return null;
             }
         }
-
-        if (!isTie) {
-            // Handle requirement 10 - winner message
-            System.out.println("Congratulations " + winner.name + " you won the game! You are the best!");
-        } else {
-            System.out.println("The game ended in a tie!");
-        }
+        return winner;
     }
 
     void displayEquality() {
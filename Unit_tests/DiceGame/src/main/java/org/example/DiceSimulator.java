@@ -0,0 +1,156 @@
+package org.example;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Plays DiceGame headless with {@link Game#playTurn(TurnPolicy)} and aggregates the outcomes. Games are
+ * split across a fork/join pool; every batch gets its own split of the seed generator, so a seed
+ * gives the same statistics on any number of cores.
+ *
+ * <pre>
+ * java org.example.DiceSimulator [games] [seed] [never|reroll|protect]
+ * </pre>
+ */
+public final class DiceSimulator {
+    private static final List<String> NAMES = Arrays.asList("Player 1", "Player 2", "Player 3");
+    // Games played sequentially by one fork/join task
+    private static final long BATCH = 20_000;
+
+    private DiceSimulator() {
+    }
+
+    static final class Stats {
+        long games;
+        long turns;
+        // Indexed by position in the turn order, not by name
+        final long[] winsBySeat = new long[NAMES.size()];
+        final long[] pointsBySeat = new long[NAMES.size()];
+        long ties;
+        // Requirement 8 - ended by a 10-point lead before turn 12
+        long endedByLead;
+        // Games and ties by number of turns played
+        final long[] lengths = new long[Game.MAX_TURNS + 1];
+        final long[] tieLengths = new long[Game.MAX_TURNS + 1];
+
+        void record(Game game) {
+            int length = game.turnCount;
+            games++;
+            turns += game.turnCount;
+            lengths[length]++;
+            if (game.turnCount < Game.MAX_TURNS) {
+                endedByLead++;
+            }
+            for (int seat = 0; seat < pointsBySeat.length; seat++) {
+                pointsBySeat[seat] += game.players.get(game.turnOrder.get(seat)).points;
+            }
+            Player winner = game.winner();
+            if (winner == null) {
+                ties++;
+                tieLengths[length]++;
+            } else {
+                winsBySeat[game.turnOrder.indexOf(game.players.indexOf(winner))]++;
+            }
+        }
+
+        Stats merge(Stats other) {
+            games += other.games;
+            turns += other.turns;
+            ties += other.ties;
+            endedByLead += other.endedByLead;
+            for (int i = 0; i < winsBySeat.length; i++) {
+                winsBySeat[i] += other.winsBySeat[i];
+                pointsBySeat[i] += other.pointsBySeat[i];
+            }
+            for (int i = 0; i <= Game.MAX_TURNS; i++) {
+                lengths[i] += other.lengths[i];
+                tieLengths[i] += other.tieLengths[i];
+            }
+            return this;
+        }
+
+        double winRate(int seat) {
+            return (double) winsBySeat[seat] / games;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder out = new StringBuilder();
+            out.append(String.format("games %d, turns %d, ties %.4f, ended by lead %.4f%n",
+                    games, turns, (double) ties / games, (double) endedByLead / games));
+            for (int seat = 0; seat < winsBySeat.length; seat++) {
+                out.append(String.format("seat %d wins %.4f, mean points %.3f%n",
+                        seat + 1, winRate(seat), (double) pointsBySeat[seat] / games));
+            }
+            out.append("turns  games      ties\n");
+            for (int length = 0; length <= Game.MAX_TURNS; length++) {
+                if (lengths[length] > 0) {
+                    out.append(String.format("%5d  %-9d  %d%n", length, lengths[length], tieLengths[length]));
+                }
+            }
+            return out.toString();
+        }
+    }
+
+    static Stats simulate(long games, TurnPolicy policy, SplittableRandom random, ForkJoinPool pool) {
+        return pool.invoke(new Batch(games, policy, random));
+    }
+
+    static Stats play(long games, TurnPolicy policy, SplittableRandom random) {
+        Stats stats = new Stats();
+        for (long i = 0; i < games; i++) {
+            Game game = new Game(random);
+            game.initializeGame(NAMES);
+            while (!game.gameOver) {
+                game.playTurn(policy);
+            }
+            stats.record(game);
+        }
+        return stats;
+    }
+
+    private static final class Batch extends RecursiveTask<Stats> {
+        private static final long serialVersionUID = 1L;
+
+        private final long games;
+        private final TurnPolicy policy;
+        private final SplittableRandom random;
+
+        Batch(long games, TurnPolicy policy, SplittableRandom random) {
+            this.games = games;
+            this.policy = policy;
+            this.random = random;
+        }
+
+        @Override
+        protected Stats compute() {
+            if (games <= BATCH) {
+                return play(games, policy, random);
+            }
+            Batch left = new Batch(games / 2, policy, random.split());
+            left.fork();
+            Stats right = new Batch(games - games / 2, policy, random).compute();
+            return right.merge(left.join());
+        }
+    }
+
+    public static void main(String[] args) {
+        long games = args.length > 0 ? Long.parseLong(args[0]) : 1_000_000;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 1;
+        String name = args.length > 2 ? args[2] : "never";
+        TurnPolicy policy;
+        switch (name) {
+            case "never": policy = TurnPolicy.NEVER; break;
+            case "reroll": policy = TurnPolicy.ALWAYS_REROLL; break;
+            case "protect": policy = TurnPolicy.protectLead(10); break;
+            default: throw new IllegalArgumentException("Unknown policy: " + name);
+        }
+        long start = System.nanoTime();
+        Stats stats = simulate(games, policy, new SplittableRandom(seed), ForkJoinPool.commonPool());
+        System.out.print(stats);
+        System.out.printf("%.1f s%n", (System.nanoTime() - start) / 1e9);
+    }
+}
@@ -0,0 +1,213 @@
+package org.example;
+
+/**
+ * Exact outcome probabilities of DiceGame by forward dynamic programming over the joint state of the
+ * three seats, turn by turn, under the never-skip policies {@link TurnPolicy#NEVER} and
+ * {@link TurnPolicy#ALWAYS_REROLL}. The numbers are what {@link DiceSimulator} converges to.
+ * <p>
+ * A seat's state is its points plus as much of its last two rolls as the three-equal-rolls reset
+ * (requirement 21) can still use: nothing after its fourth and last roll, and before that roll only
+ * the value of an equal pair. Values that add the same points with the same chance (3 and 6, 5 and 10,
+ * 15 and 30) are interchangeable, so the state only keeps their class and treats the last roll as the
+ * class's first value. The lead rule (requirement 8) couples the seats, so the joint states of a turn
+ * are kept in a primitive hash map keyed by the three packed seat states.
+ */
+final class DiceSolver {
+    // Values a turn can add to consecutiveRolls: 1, 2, 3, 4, 6 and 5 times the second roll
+    private static final int[] VALUES = {1, 2, 3, 4, 6, 5, 10, 15, 20, 25, 30};
+    // Class of each value, numbered by its first value; values of a class add the same points
+    private static final int[] CLASS = {0, 1, 2, 3, 2, 5, 5, 7, 8, 9, 7};
+    private static final int TURNS = Game.MAX_TURNS;
+    private static final int SEATS = 3;
+    private static final int ROLLS = TURNS / SEATS;
+    // Per seat: 7 bits of points (at most 4 * 25) and 5 bits of roll state
+    private static final int SEAT_BITS = 12;
+    private static final int SEAT_MASK = (1 << SEAT_BITS) - 1;
+    // Roll state: 0 = irrelevant, 1 + c = last roll of class c, 1 + VALUES.length + c = last two rolls equal and of class c
+    private static final int PAIR = 1 + VALUES.length;
+
+    private DiceSolver() {
+    }
+
+    static final class Result {
+        final double[] winBySeat = new double[SEATS];
+        double tie;
+        // Requirement 8 - ended by a 10-point lead before Game.MAX_TURNS turns
+        double endedByLead;
+        final double[] expectedPoints = new double[SEATS];
+        // Probability the game lasts exactly this many turns
+        final double[] lengths = new double[TURNS + 1];
+
+        @Override
+        public String toString() {
+            StringBuilder out = new StringBuilder();
+            out.append(String.format("ties %.4f, ended by lead %.4f%n", tie, endedByLead));
+            for (int seat = 0; seat < SEATS; seat++) {
+                out.append(String.format("seat %d wins %.4f, expected points %.3f%n",
+                        seat + 1, winBySeat[seat], expectedPoints[seat]));
+            }
+            for (int length = 1; length <= TURNS; length++) {
+                out.append(String.format("%5d  %.5f%n", length, lengths[length]));
+            }
+            return out.toString();
+        }
+    }
+
+    static Result solve(boolean rerollOnes) {
+        double[] probability = new double[VALUES.length];
+        for (int i = 0; i < VALUES.length; i++) {
+            // With re-rolls a first 1 never stands, so the other five faces share its chance
+            double face = rerollOnes ? 1.0 / 5 : 1.0 / 6;
+            probability[i] = VALUES[i] == 1 ? (rerollOnes ? 0 : face) : VALUES[i] % 5 == 0 ? face / 6 : face;
+        }
+
+        Result result = new Result();
+        StateMap layer = new StateMap(16);
+        layer.add(0L, 1.0);
+        for (int turn = 0; turn < TURNS; turn++) {
+            int seat = turn % SEATS;
+            int shift = seat * SEAT_BITS;
+            boolean lastRoll = turn / SEATS == ROLLS - 1;
+            boolean nextIsLast = turn / SEATS == ROLLS - 2;
+            StateMap next = new StateMap(layer.size() * 4);
+            for (int slot = 0; slot < layer.capacity(); slot++) {
+                double weight = layer.weight(slot);
+                if (weight == 0) {
+                    continue;
+                }
+                long state = layer.key(slot);
+                int mover = (int) (state >>> shift) & SEAT_MASK;
+                int points = mover >>> 5;
+                int rolls = mover & 31;
+                for (int i = 0; i < VALUES.length; i++) {
+                    if (probability[i] == 0) {
+                        continue;
+                    }
+                    int value = VALUES[i];
+                    int newPoints;
+                    if (rolls == PAIR + i) {
+                        // Requirement 21 - the same value three times in a row
+                        newPoints = 0;
+                    } else if (value == 2) {
+                        newPoints = points + value * 3;
+                    } else if (value % 2 == 0) {
+                        newPoints = points + value / 2;
+                    } else {
+                        newPoints = points + value;
+                    }
+                    // Only the class's first value repeats the last roll; the others start a new run
+                    boolean pair = rolls == 1 + i || rolls == PAIR + i;
+                    int c = CLASS[i];
+                    int newRolls = lastRoll ? 0 : pair ? PAIR + c : nextIsLast ? 0 : 1 + c;
+                    long moved = state & ~((long) SEAT_MASK << shift) | (long) (newPoints << 5 | newRolls) << shift;
+                    double p = weight * probability[i];
+                    if (turn + 1 == TURNS || leads(moved)) {
+                        finish(result, moved, turn + 1, p);
+                    } else {
+                        next.add(moved, p);
+                    }
+                }
+            }
+            layer = next;
+        }
+        return result;
+    }
+
+    private static int points(long state, int seat) {
+        return (int) (state >>> (seat * SEAT_BITS + 5)) & 127;
+    }
+
+    // Game.checkGameEndConditions without the turn limit
+    private static boolean leads(long state) {
+        int a = points(state, 0), b = points(state, 1), c = points(state, 2);
+        return a > Math.max(b, c) + 10 || b > Math.max(a, c) + 10 || c > Math.max(a, b) + 10;
+    }
+
+    private static void finish(Result result, long state, int turns, double p) {
+        result.lengths[turns] += p;
+        if (turns < TURNS) {
+            result.endedByLead += p;
+        }
+        int winner = 0;
+        for (int seat = 0; seat < SEATS; seat++) {
+            result.expectedPoints[seat] += p * points(state, seat);
+            if (points(state, seat) > points(state, winner)) {
+                winner = seat;
+            }
+        }
+        for (int seat = 0; seat < SEATS; seat++) {
+            if (seat != winner && points(state, seat) == points(state, winner)) {
+                result.tie += p;
+                return;
+            }
+        }
+        result.winBySeat[winner] += p;
+    }
+
+    // Open-addressing map from packed state to probability; key and weight bits share a slot so a
+    // lookup touches one cache line, and states are never removed
+    private static final class StateMap {
+        private long[] slots;
+        private int size;
+
+        StateMap(int expected) {
+            slots = new long[Integer.highestOneBit(Math.max(16, expected) * 2 - 1) * 4];
+        }
+
+        int capacity() {
+            return slots.length / 2;
+        }
+
+        int size() {
+            return size;
+        }
+
+        long key(int slot) {
+            return slots[2 * slot];
+        }
+
+        double weight(int slot) {
+            return Double.longBitsToDouble(slots[2 * slot + 1]);
+        }
+
+        void add(long key, double weight) {
+            int mask = slots.length / 2 - 1;
+            int slot = hash(key) & mask;
+            while (slots[2 * slot + 1] != 0 && slots[2 * slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            if (slots[2 * slot + 1] == 0) {
+                slots[2 * slot] = key;
+                slots[2 * slot + 1] = Double.doubleToRawLongBits(weight);
+                if (++size * 2 > slots.length / 2) {
+                    grow();
+                }
+                return;
+            }
+            slots[2 * slot + 1] = Double.doubleToRawLongBits(weight(slot) + weight);
+        }
+
+        private void grow() {
+            long[] old = slots;
+            slots = new long[old.length * 2];
+            size = 0;
+            for (int slot = 0; slot < old.length; slot += 2) {
+                if (old[slot + 1] != 0) {
+                    add(old[slot], Double.longBitsToDouble(old[slot + 1]));
+                }
+            }
+        }
+
+        private static int hash(long key) {
+            key *= 0x9E3779B97F4A7C15L;
+            return (int) (key ^ key >>> 32);
+        }
+    }
+
+    public static void main(String[] args) {
+        long start = System.nanoTime();
+        Result result = solve(args.length > 0 && args[0].equals("reroll"));
+        System.out.print(result);
+        System.out.printf("%.1f ms%n", (System.nanoTime() - start) / 1e6);
+    }
+}
@@ -0,0 +1,50 @@
+package org.example;
+
+/**
+ * Makes the decisions a human makes at the console during {@link Game#manageTurn()}, for headless play.
+ */
+interface TurnPolicy {
+
+    // Requirement 20 - skip the turn before rolling
+    boolean skip(Game game, Player player);
+
+    // Requirement 9 - re-roll a first roll of 1
+    boolean reroll(Game game, Player player);
+
+    TurnPolicy NEVER = of(false, false);
+    TurnPolicy ALWAYS_REROLL = of(false, true);
+
+    static TurnPolicy of(boolean skip, boolean reroll) {
+        return new TurnPolicy() {
+            @Override
+            public boolean skip(Game game, Player player) {
+                return skip;
+            }
+
+            @Override
+            public boolean reroll(Game game, Player player) {
+                return reroll;
+            }
+        };
+    }
+
+    // Skips while leading by more than the given margin, so the others can't catch up with a lucky roll
+    static TurnPolicy protectLead(int margin) {
+        return new TurnPolicy() {
+            @Override
+            public boolean skip(Game game, Player player) {
+                for (Player other : game.players) {
+                    if (other != player && player.points - other.points <= margin) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+
+            @Override
+            public boolean reroll(Game game, Player player) {
+                return true;
+            }
+        };
+    }
+}
@@ -0,0 +1,59 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DiceBatchTest {
+
+    private static void assertSameState(Game expected, Game actual) {
+        for (int player = 0; player < DiceBatch.PLAYERS; player++) {
+            Player e = expected.players.get(player);
+            Player a = actual.players.get(player);
+            assertEquals(e.points, a.points);
+            assertEquals(e.pointColor, a.pointColor);
+            assertArrayEquals(e.consecutiveRolls, a.consecutiveRolls);
+        }
+        assertEquals(expected.turnOrder, actual.turnOrder);
+        assertEquals(expected.turnCount, actual.turnCount);
+        assertEquals(expected.gameOver, actual.gameOver);
+    }
+
+    @Test
+    public void testStepMatchesPlayTurn() {
+        for (long seed = 0; seed < 200; seed++) {
+            Game game = new Game(new SplittableRandom(seed));
+            game.initializeGame(Arrays.asList("Player 1", "Player 2", "Player 3"));
+            DiceBatch batch = new DiceBatch(1);
+            SplittableRandom random = new SplittableRandom(seed);
+            batch.reset(0, random);
+            assertSameState(game, batch.toGame(0));
+
+            while (!game.gameOver) {
+                game.playTurn(TurnPolicy.ALWAYS_REROLL);
+                batch.step(DiceBatch.Policy.ALWAYS_REROLL, random);
+                assertSameState(game, batch.toGame(0));
+            }
+            Player winner = game.winner();
+            assertEquals(winner == null ? -1 : game.players.indexOf(winner), batch.winner(0));
+        }
+    }
+
+    @Test
+    public void testLoadRoundTrip() {
+        DiceBatch batch = new DiceBatch(4);
+        SplittableRandom random = new SplittableRandom(3);
+        batch.resetAll(random);
+        for (int turn = 0; turn < 5; turn++) {
+            batch.step(DiceBatch.Policy.NEVER, random);
+        }
+        Game game = batch.toGame(1);
+
+        DiceBatch copy = new DiceBatch(1);
+        copy.load(0, game);
+        assertSameState(game, copy.toGame(0));
+    }
+}
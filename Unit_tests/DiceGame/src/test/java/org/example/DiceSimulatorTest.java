@@ -0,0 +1,79 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DiceSimulatorTest {
+
+    // Rolls the given values in order
+    private static Game scripted(int... rolls) {
+        Game game = new Game(new SplittableRandom(1)) {
+            int next;
+
+            @Override
+            int rollDice() {
+                return rolls[next++];
+            }
+        };
+        game.initializeGame(Arrays.asList("Alice", "Bob", "Charlie"));
+        return game;
+    }
+
+    private static Player current(Game game) {
+        return game.players.get(game.turnOrder.get(game.turnCount % 3));
+    }
+
+    @Test
+    public void testPlayTurnAppliesRollRules() {
+        Game game = scripted(5, 1, 1, 4, 2);
+        Player first = current(game);
+        game.playTurn(TurnPolicy.NEVER);
+        assertEquals(5, first.points);
+
+        Player second = current(game);
+        game.playTurn(TurnPolicy.ALWAYS_REROLL);
+        assertEquals(2, second.points);
+
+        Player third = current(game);
+        game.playTurn(TurnPolicy.NEVER);
+        assertEquals(6, third.points);
+        assertEquals(3, game.turnCount);
+    }
+
+    @Test
+    public void testSkippedTurnsEndTheGame() {
+        Game game = scripted();
+        TurnPolicy skip = TurnPolicy.of(true, false);
+        while (!game.gameOver) {
+            game.playTurn(skip);
+        }
+        assertEquals(12, game.turnCount);
+        assertNull(game.winner());
+    }
+
+    @Test
+    public void testSameSeedSameStatsOnAnyPool() {
+        ForkJoinPool one = new ForkJoinPool(1);
+        ForkJoinPool four = new ForkJoinPool(4);
+        DiceSimulator.Stats serial;
+        DiceSimulator.Stats parallel;
+        try {
+            serial = DiceSimulator.simulate(50_000, TurnPolicy.NEVER, new SplittableRandom(7), one);
+            parallel = DiceSimulator.simulate(50_000, TurnPolicy.NEVER, new SplittableRandom(7), four);
+        } finally {
+            one.shutdown();
+            four.shutdown();
+        }
+
+        assertEquals(serial.toString(), parallel.toString());
+        assertEquals(50_000, serial.games);
+        assertEquals(serial.games, serial.ties + Arrays.stream(serial.winsBySeat).sum());
+        assertEquals(serial.games, Arrays.stream(serial.lengths).sum());
+        assertEquals(Game.MAX_TURNS + 1, serial.lengths.length);
+    }
+}
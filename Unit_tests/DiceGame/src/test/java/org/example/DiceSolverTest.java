@@ -0,0 +1,51 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DiceSolverTest {
+
+    // Five standard errors of a proportion estimated from the given number of games
+    private static double tolerance(double p, long games) {
+        return 5 * Math.sqrt(p * (1 - p) / games);
+    }
+
+    private static void assertMatchesSimulation(boolean reroll, TurnPolicy policy) {
+        DiceSolver.Result exact = DiceSolver.solve(reroll);
+        long games = 200_000;
+        DiceSimulator.Stats sampled = DiceSimulator.simulate(games, policy, new SplittableRandom(11), ForkJoinPool.commonPool());
+
+        assertEquals(1.0, Arrays.stream(exact.lengths).sum(), 1e-9);
+        assertEquals(1.0, exact.tie + Arrays.stream(exact.winBySeat).sum(), 1e-9);
+        assertEquals(exact.tie, (double) sampled.ties / games, tolerance(exact.tie, games));
+        assertEquals(exact.endedByLead, (double) sampled.endedByLead / games, tolerance(exact.endedByLead, games));
+        for (int seat = 0; seat < 3; seat++) {
+            assertEquals(exact.winBySeat[seat], sampled.winRate(seat), tolerance(exact.winBySeat[seat], games));
+            assertEquals(exact.expectedPoints[seat], (double) sampled.pointsBySeat[seat] / games, 0.1);
+        }
+        for (int length = 1; length <= 12; length++) {
+            assertEquals(exact.lengths[length], (double) sampled.lengths[length] / games, tolerance(exact.lengths[length], games));
+        }
+    }
+
+    @Test
+    public void testMatchesSimulation() {
+        assertMatchesSimulation(false, TurnPolicy.NEVER);
+    }
+
+    @Test
+    public void testMatchesSimulationWithRerolls() {
+        assertMatchesSimulation(true, TurnPolicy.ALWAYS_REROLL);
+    }
+
+    @Test
+    public void testFirstTurnEndsAboveTenPoints() {
+        // Only a 5 followed by 3, 5 or 6 gives more than 10 points in one turn
+        assertEquals(3.0 / 36, DiceSolver.solve(false).lengths[1], 1e-12);
+    }
+}
@@ -0,0 +1,23 @@
+package org.example.evaluator;
+
+import java.nio.file.Path;
+
+/**
+ * One generated LLM response under Experiments/, e.g. rq1_results/DeepSeek/dice_game2.txt.
+ */
+final class Artifact {
+    final Path path;
+    final String id;
+    final GameKind game;
+
+    Artifact(Path path, String id, GameKind game) {
+        this.path = path;
+        this.id = id;
+        this.game = game;
+    }
+
+    @Override
+    public String toString() {
+        return id;
+    }
+}
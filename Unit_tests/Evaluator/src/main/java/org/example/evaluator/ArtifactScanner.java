@@ -0,0 +1,37 @@
+package org.example.evaluator;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Discovers the generated responses under Experiments/. The prompt files next to them are skipped.
+ */
+final class ArtifactScanner {
+
+    private ArtifactScanner() {
+    }
+
+    static List<Artifact> scan(Path experimentsDir) throws IOException {
+        List<Artifact> artifacts = new ArrayList<>();
+        try (Stream<Path> files = Files.walk(experimentsDir)) {
+            files.filter(Files::isRegularFile).forEach(file -> {
+                String fileName = file.getFileName().toString();
+                if (!fileName.endsWith(".txt") || fileName.contains("_prompt")) {
+                    return;
+                }
+                GameKind game = GameKind.forFileName(fileName);
+                if (game != null) {
+                    String id = experimentsDir.relativize(file).toString().replace('\\', '/');
+                    artifacts.add(new Artifact(file, id, game));
+                }
+            });
+        }
+        artifacts.sort(Comparator.comparing(artifact -> artifact.id));
+        return artifacts;
+    }
+}
@@ -0,0 +1,25 @@
+package org.example.evaluator;
+
+import java.util.Map;
+
+/**
+ * Defines one candidate's classes, compiled together with its test class. JUnit and Mockito come from
+ * the parent, so every candidate gets its own org.example runtime package without reloading them.
+ */
+final class CandidateClassLoader extends ClassLoader {
+    private final Map<String, byte[]> classes;
+
+    CandidateClassLoader(Map<String, byte[]> classes, ClassLoader parent) {
+        super(parent);
+        this.classes = classes;
+    }
+
+    @Override
+    protected Class<?> findClass(String name) throws ClassNotFoundException {
+        byte[] bytes = classes.get(name);
+        if (bytes == null) {
+            throw new ClassNotFoundException(name);
+        }
+        return defineClass(name, bytes, 0, bytes.length);
+    }
+}
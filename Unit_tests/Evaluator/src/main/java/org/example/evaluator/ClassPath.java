@@ -0,0 +1,64 @@
+package org.example.evaluator;
+
+import java.io.File;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Paths;
+import java.security.CodeSource;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * The classpath candidates and test classes compile and run against: whatever the evaluator itself was
+ * loaded from. Under {@code mvn exec:java} the project and its dependencies sit in a child class loader
+ * and {@code java.class.path} is only Maven's launcher, so the entries come from the class loaders first.
+ */
+final class ClassPath {
+    // Classes every test class needs; the evaluator refuses to run if one of them is missing
+    private static final String[] REQUIRED = {"org.junit.Test", "org.junit.jupiter.api.Test", "org.mockito.Mockito"};
+
+    private ClassPath() {
+    }
+
+    static String of(Class<?> anchor) {
+        Set<String> entries = new LinkedHashSet<>();
+        for (ClassLoader loader = anchor.getClassLoader(); loader != null; loader = loader.getParent()) {
+            if (loader instanceof URLClassLoader) {
+                for (URL url : ((URLClassLoader) loader).getURLs()) {
+                    add(entries, url);
+                }
+            }
+        }
+        add(entries, anchor);
+        for (String name : REQUIRED) {
+            try {
+                add(entries, Class.forName(name, false, anchor.getClassLoader()));
+            } catch (ClassNotFoundException e) {
+                throw new IllegalStateException(name + " is not on the evaluator's classpath", e);
+            }
+        }
+        Collections.addAll(entries, System.getProperty("java.class.path").split(File.pathSeparator));
+        entries.remove("");
+        return String.join(File.pathSeparator, entries);
+    }
+
+    private static void add(Set<String> entries, Class<?> type) {
+        CodeSource source = type.getProtectionDomain().getCodeSource();
+        if (source != null && source.getLocation() != null) {
+            add(entries, source.getLocation());
+        }
+    }
+
+    private static void add(Set<String> entries, URL url) {
+        if (!"file".equals(url.getProtocol())) {
+            return;
+        }
+        try {
+            entries.add(Paths.get(url.toURI()).toString());
+        } catch (URISyntaxException e) {
+            throw new IllegalStateException("Bad classpath entry " + url, e);
+        }
+    }
+}
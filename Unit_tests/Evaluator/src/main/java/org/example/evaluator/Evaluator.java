@@ -0,0 +1,156 @@
+package org.example.evaluator;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Scores every generated game under Experiments/ against the matching Unit_tests suite in parallel
+ * and writes the per-requirement pass/fail matrix as CSV. With --requirements only the test methods
+ * covering those requirements are run, and their outcomes are merged into the existing matrix.
+ *
+ * <pre>
+ * --root DIR          repository root (default: first parent of the working directory with Experiments/ and Unit_tests/)
+ * --out FILE          matrix to write (default: ROOT/Experiments/results_matrix.csv)
+ * --threads N         parallel candidates (default: number of cores)
+ * --test-timeout SEC  wall-clock budget per test method (default: 10)
+ * --test-cpu SEC      CPU budget per test method (default: 5)
+ * --cache DIR         compile and outcome cache (default: ROOT/Unit_tests/Evaluator/target/cache)
+ * --cache-size MB     size above which least recently used entries are evicted (default: 512)
+ * --no-cache          neither read nor write the cache
+ * --requirements LIST re-run only the tests of these requirements, e.g. "dice:18,snake:13" or "7" for every game
+ * --fork              compile with javac and run every candidate in its own JVM instead of in memory
+ * --timeout SEC       budget per candidate JVM with --fork (default: 120)
+ * </pre>
+ */
+public final class Evaluator {
+
+    private Evaluator() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path root = null;
+        Path out = null;
+        int threads = Runtime.getRuntime().availableProcessors();
+        long timeoutSeconds = 120;
+        long testWallSeconds = 10;
+        long testCpuSeconds = 5;
+        boolean fork = false;
+        Path cacheDir = null;
+        long cacheMegabytes = 512;
+        boolean useCache = true;
+        String requirements = null;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--root": root = Paths.get(args[++i]); break;
+                case "--out": out = Paths.get(args[++i]); break;
+                case "--threads": threads = Integer.parseInt(args[++i]); break;
+                case "--timeout": timeoutSeconds = Long.parseLong(args[++i]); break;
+                case "--test-timeout": testWallSeconds = Long.parseLong(args[++i]); break;
+                case "--test-cpu": testCpuSeconds = Long.parseLong(args[++i]); break;
+                case "--cache": cacheDir = Paths.get(args[++i]); break;
+                case "--cache-size": cacheMegabytes = Long.parseLong(args[++i]); break;
+                case "--no-cache": useCache = false; break;
+                case "--requirements": requirements = args[++i]; break;
+                case "--fork": fork = true; break;
+                default: throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+        if (root == null) {
+            root = findRoot(Paths.get("").toAbsolutePath());
+        }
+        if (out == null) {
+            out = root.resolve("Experiments").resolve("results_matrix.csv");
+        }
+        if (cacheDir == null) {
+            cacheDir = root.resolve("Unit_tests/Evaluator/target/cache");
+        }
+
+        List<Artifact> artifacts = ArtifactScanner.scan(root.resolve("Experiments"));
+        Map<GameKind, TestSuite> suites = TestSuite.loadAll(root);
+        ResultMatrix matrix = new ResultMatrix(suites);
+        Map<GameKind, Set<String>> affected = null;
+        if (requirements != null) {
+            affected = new RequirementIndex(suites).affected(requirements);
+            Map<String, Artifact> byId = new HashMap<>();
+            for (Artifact artifact : artifacts) {
+                byId.put(artifact.id, artifact);
+            }
+            if (!Files.exists(ResultMatrix.testsFile(out))) {
+                throw new IllegalStateException("No previous results at " + ResultMatrix.testsFile(out) + "; run without --requirements first");
+            }
+            matrix.read(out, byId);
+            List<Artifact> selected = new ArrayList<>();
+            for (Artifact artifact : artifacts) {
+                if (affected.containsKey(artifact.game)) {
+                    selected.add(artifact);
+                }
+            }
+            artifacts = selected;
+            System.out.println("Re-running " + affected);
+        }
+        ResultCache cache = useCache && !fork ? new ResultCache(cacheDir, cacheMegabytes << 20) : null;
+        SuiteRunner runner;
+        if (fork) {
+            runner = new ForkedSuiteRunner(timeoutSeconds);
+        } else {
+            // Generated Arkanoid games extend JPanel; headless keeps them from needing a display
+            System.setProperty("java.awt.headless", "true");
+            runner = new InProcessSuiteRunner(cache, testWallSeconds * 1000, testCpuSeconds * 1000);
+        }
+
+        System.out.println("Scoring " + artifacts.size() + " artifacts on " + threads + " threads");
+        long start = System.nanoTime();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<SuiteResult>> futures = new ArrayList<>();
+            List<Collection<String>> runs = new ArrayList<>();
+            for (Artifact artifact : artifacts) {
+                TestSuite suite = suites.get(artifact.game);
+                // Only a row with every test outcome can take a partial run; others get the full suite
+                SuiteResult previous = affected == null ? null : matrix.get(artifact.id);
+                Collection<String> tests = previous != null && previous.status == SuiteResult.Status.TESTED
+                        ? affected.get(artifact.game) : suite.requirements.keySet();
+                runs.add(tests);
+                futures.add(pool.submit(() -> runner.run(artifact, suite, tests)));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                SuiteResult result = futures.get(i).get();
+                if (affected == null) {
+                    matrix.add(result);
+                } else {
+                    matrix.merge(result, runs.get(i));
+                }
+                System.out.println("[" + (i + 1) + "/" + futures.size() + "] " + result.artifact + " " + result.status);
+            }
+        } finally {
+            pool.shutdown();
+        }
+        matrix.write(out);
+        System.out.printf("Wrote %s in %.1f s%n", out, (System.nanoTime() - start) / 1e9);
+        if (cache != null) {
+            cache.evict();
+            System.out.println("Cache: " + cache.stats());
+        }
+        // Candidates run in this JVM and may have left non-daemon threads behind
+        System.exit(0);
+    }
+
+    private static Path findRoot(Path dir) {
+        for (Path candidate = dir; candidate != null; candidate = candidate.getParent()) {
+            if (Files.isDirectory(candidate.resolve("Experiments")) && Files.isDirectory(candidate.resolve("Unit_tests"))) {
+                return candidate;
+            }
+        }
+        throw new IllegalStateException("Run from inside the repository or pass --root");
+    }
+}
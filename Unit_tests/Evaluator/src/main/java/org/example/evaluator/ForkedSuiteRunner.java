@@ -0,0 +1,140 @@
+package org.example.evaluator;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Compiles each artifact with javac into a scratch directory and runs the test class in a fresh JVM,
+ * so candidates that declare the same package-private classes never see each other.
+ */
+final class ForkedSuiteRunner implements SuiteRunner {
+    private final String classPath = ClassPath.of(SuiteMain.class);
+    private final Path javaHome = Paths.get(System.getProperty("java.home"));
+    private final long timeoutSeconds;
+
+    ForkedSuiteRunner(long timeoutSeconds) {
+        this.timeoutSeconds = timeoutSeconds;
+    }
+
+    @Override
+    public SuiteResult run(Artifact artifact, TestSuite suite, Collection<String> methods) throws Exception {
+        String unit = SourceExtractor.extract(artifact.path);
+        if (unit == null) {
+            return SuiteResult.failed(artifact, SuiteResult.Status.NO_SOURCE, "no fenced code block");
+        }
+
+        Path work = Files.createTempDirectory("evaluator-");
+        try {
+            Path sources = Files.createDirectories(work.resolve("src"));
+            Path classes = Files.createDirectories(work.resolve("classes"));
+            Path main = sources.resolve(artifact.game.projectName + ".java");
+            Path test = sources.resolve(artifact.game.projectName + "Test.java");
+            Files.write(main, unit.getBytes(StandardCharsets.UTF_8));
+
+            Path compileLog = work.resolve("javac.log");
+            Set<String> stubbed = new TreeSet<>();
+            while (true) {
+                Files.write(test, suite.withStubbedMethods(stubbed).getBytes(StandardCharsets.UTF_8));
+                int exit = fork(compileLog, tool("javac"), "-nowarn", "-encoding", "UTF-8",
+                        "-d", classes.toString(), "-cp", classPath, main.toString(), test.toString());
+                if (exit == 0) {
+                    break;
+                }
+                String log = new String(Files.readAllBytes(compileLog), StandardCharsets.UTF_8);
+                Set<String> broken = suite.methodsAtLines(errorLines(log, suite.fileName()));
+                if (exit < 0 || !stubbed.addAll(broken)) {
+                    return SuiteResult.failed(artifact, SuiteResult.Status.COMPILE_ERROR, log);
+                }
+            }
+
+            Path resultsFile = work.resolve("results.txt");
+            List<String> command = new ArrayList<>(Arrays.asList(tool("java"), "-Djava.awt.headless=true",
+                    "-cp", classes + File.pathSeparator + classPath,
+                    SuiteMain.class.getName(), artifact.game.testClassName(), resultsFile.toString()));
+            command.addAll(methods);
+            int exit = fork(work.resolve("test.log"), command.toArray(new String[0]));
+            Map<String, Boolean> tests = readResults(resultsFile);
+            SuiteResult.Status status = exit < 0 ? SuiteResult.Status.TIMEOUT : SuiteResult.Status.TESTED;
+            return new SuiteResult(artifact, status, tests, stubbed.isEmpty() ? null : "stubbed " + stubbed);
+        } finally {
+            delete(work);
+        }
+    }
+
+    // Returns the exit code, or -1 if the process was killed after the timeout
+    private int fork(Path log, String... command) throws IOException, InterruptedException {
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        // Tests read System.in through Scanner; an empty stdin makes them fail instead of waiting
+        process.getOutputStream().close();
+        if (!process.waitFor(timeoutSeconds, TimeUnit.SECONDS)) {
+            process.destroyForcibly().waitFor();
+            return -1;
+        }
+        return process.exitValue();
+    }
+
+    private String tool(String name) {
+        Path bin = javaHome.resolve("bin").resolve(name);
+        // On Java 8 java.home points at the bundled JRE, which has no javac
+        if (!Files.exists(bin) && !Files.exists(bin.resolveSibling(name + ".exe")) && javaHome.getParent() != null) {
+            bin = javaHome.getParent().resolve("bin").resolve(name);
+        }
+        return bin.toString();
+    }
+
+    // Lines of "File.java:LINE: error" diagnostics reported for the given file
+    private static List<Long> errorLines(String log, String fileName) {
+        List<Long> lines = new ArrayList<>();
+        Matcher matcher = Pattern.compile(Pattern.quote(fileName) + ":(\\d+): error").matcher(log);
+        while (matcher.find()) {
+            lines.add(Long.parseLong(matcher.group(1)));
+        }
+        return lines;
+    }
+
+    private static Map<String, Boolean> readResults(Path resultsFile) throws IOException {
+        Map<String, Boolean> tests = new LinkedHashMap<>();
+        if (!Files.exists(resultsFile)) {
+            return tests;
+        }
+        for (String line : Files.readAllLines(resultsFile, StandardCharsets.UTF_8)) {
+            if (line.startsWith("PASS ")) {
+                tests.put(line.substring(5), true);
+            } else if (line.startsWith("FAIL ")) {
+                tests.put(line.substring(5), false);
+            }
+        }
+        return tests;
+    }
+
+    private static void delete(Path dir) throws IOException {
+        List<Path> paths = new ArrayList<>();
+        try (Stream<Path> walk = Files.walk(dir)) {
+            walk.forEach(paths::add);
+        }
+        paths.sort(Comparator.reverseOrder());
+        for (Path path : paths) {
+            Files.deleteIfExists(path);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package org.example.evaluator;
+
+import java.nio.file.Path;
+
+/**
+ * The four games of the study. Generated artifacts are mapped to a game by their file name prefix.
+ */
+enum GameKind {
+    ARKANOID("arkanoid_", "ArkanoidGame"),
+    DICE("dice_", "DiceGame"),
+    SCOPA("scopa_", "ScopaGame"),
+    SNAKE("snake_", "SnakeGame");
+
+    final String filePrefix;
+    final String projectName;
+
+    GameKind(String filePrefix, String projectName) {
+        this.filePrefix = filePrefix;
+        this.projectName = projectName;
+    }
+
+    String testClassName() {
+        return "org.example." + projectName + "Test";
+    }
+
+    Path projectDir(Path root) {
+        return root.resolve("Unit_tests").resolve(projectName);
+    }
+
+    Path testSource(Path root) {
+        return projectDir(root).resolve("src/test/java/org/example/" + projectName + "Test.java");
+    }
+
+    static GameKind forFileName(String fileName) {
+        for (GameKind game : values()) {
+            if (fileName.startsWith(game.filePrefix)) {
+                return game;
+            }
+        }
+        return null;
+    }
+}
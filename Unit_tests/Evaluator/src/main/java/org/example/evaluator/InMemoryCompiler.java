@@ -0,0 +1,155 @@
+package org.example.evaluator;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compiles generated sources with the in-process javac. Sources are read from strings and class files
+ * are kept in memory, so a candidate never touches the disk.
+ */
+final class InMemoryCompiler {
+    private static final JavaCompiler JAVAC = ToolProvider.getSystemJavaCompiler();
+
+    // The standard file manager indexes the classpath jars once; it is not thread-safe, so each worker keeps its own
+    private final ThreadLocal<StandardJavaFileManager> fileManagers =
+            ThreadLocal.withInitial(() -> JAVAC.getStandardFileManager(null, null, StandardCharsets.UTF_8));
+    private final List<String> options;
+
+    InMemoryCompiler() {
+        if (JAVAC == null) {
+            throw new IllegalStateException("No system Java compiler, run the evaluator on a JDK");
+        }
+        this.options = Arrays.asList("-classpath", ClassPath.of(InMemoryCompiler.class), "-proc:none", "-nowarn");
+    }
+
+    static final class Result {
+        // Binary class name -> class file bytes, empty if compilation failed
+        final Map<String, byte[]> classes;
+        final List<Diagnostic<? extends JavaFileObject>> errors;
+
+        Result(Map<String, byte[]> classes, List<Diagnostic<? extends JavaFileObject>> errors) {
+            this.classes = classes;
+            this.errors = errors;
+        }
+
+        boolean succeeded() {
+            return errors.isEmpty();
+        }
+
+        // Lines of the errors reported for the given file name
+        List<Long> errorLines(String fileName) {
+            List<Long> lines = new ArrayList<>();
+            for (Diagnostic<? extends JavaFileObject> error : errors) {
+                if (error.getSource() != null && error.getSource().getName().endsWith("/" + fileName)) {
+                    lines.add(error.getLineNumber());
+                }
+            }
+            return lines;
+        }
+
+        String describeErrors() {
+            StringBuilder text = new StringBuilder();
+            for (Diagnostic<? extends JavaFileObject> error : errors) {
+                String file = error.getSource() == null ? "" : error.getSource().getName();
+                text.append(file).append(':').append(error.getLineNumber()).append(": ")
+                        .append(error.getMessage(null)).append('\n');
+            }
+            return text.toString();
+        }
+    }
+
+    // sources: binary class name (e.g. org.example.DiceGame) -> source text
+    Result compile(Map<String, String> sources) {
+        List<JavaFileObject> units = new ArrayList<>();
+        for (Map.Entry<String, String> source : sources.entrySet()) {
+            units.add(new SourceFile(source.getKey(), source.getValue()));
+        }
+        MemoryFileManager fileManager = new MemoryFileManager(fileManagers.get());
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        boolean ok = JAVAC.getTask(null, fileManager, diagnostics, options, null, units).call();
+
+        List<Diagnostic<? extends JavaFileObject>> errors = new ArrayList<>();
+        for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+            if (diagnostic.getKind() == Diagnostic.Kind.ERROR) {
+                errors.add(diagnostic);
+            }
+        }
+        if (!ok && errors.isEmpty()) {
+            throw new IllegalStateException("javac failed without reporting an error");
+        }
+        return new Result(ok ? fileManager.classes : new HashMap<>(), errors);
+    }
+
+    private static URI uri(String className, JavaFileObject.Kind kind) {
+        return URI.create("mem:///" + className.replace('.', '/') + kind.extension);
+    }
+
+    private static final class SourceFile extends SimpleJavaFileObject {
+        private final String text;
+
+        SourceFile(String className, String text) {
+            super(uri(className, Kind.SOURCE), Kind.SOURCE);
+            this.text = text;
+        }
+
+        @Override
+        public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+            return text;
+        }
+    }
+
+    private static final class ClassFile extends SimpleJavaFileObject {
+        private final String className;
+        private final Map<String, byte[]> classes;
+
+        ClassFile(String className, Map<String, byte[]> classes) {
+            super(uri(className, Kind.CLASS), Kind.CLASS);
+            this.className = className;
+            this.classes = classes;
+        }
+
+        @Override
+        public OutputStream openOutputStream() {
+            return new ByteArrayOutputStream() {
+                @Override
+                public void close() {
+                    classes.put(className, toByteArray());
+                }
+            };
+        }
+    }
+
+    private static final class MemoryFileManager extends ForwardingJavaFileManager<StandardJavaFileManager> {
+        final Map<String, byte[]> classes = new HashMap<>();
+
+        MemoryFileManager(StandardJavaFileManager fileManager) {
+            super(fileManager);
+        }
+
+        @Override
+        public JavaFileObject getJavaFileForOutput(Location location, String className, JavaFileObject.Kind kind, FileObject sibling) {
+            return new ClassFile(className, classes);
+        }
+
+        @Override
+        public void close() {
+            // The wrapped file manager is reused by the next compilation on this thread
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package org.example.evaluator;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Compiles each artifact in memory and runs its test class in this JVM, inside a fresh
+ * {@link CandidateClassLoader} and the {@link Sandbox}, so candidates can be scored concurrently.
+ * With a {@link ResultCache}, compiled candidates and test outcomes are reused; only test methods
+ * whose candidate, test code or JDK changed are run again.
+ */
+final class InProcessSuiteRunner implements SuiteRunner {
+    private static final String JDK = System.getProperty("java.version");
+
+    private final InMemoryCompiler compiler = new InMemoryCompiler();
+    private final ResultCache cache;
+    private final long testWallMillis;
+    private final long testCpuMillis;
+
+    InProcessSuiteRunner(ResultCache cache, long testWallMillis, long testCpuMillis) {
+        this.cache = cache;
+        this.testWallMillis = testWallMillis;
+        this.testCpuMillis = testCpuMillis;
+        StdioRouter.install();
+    }
+
+    @Override
+    public SuiteResult run(Artifact artifact, TestSuite suite, Collection<String> methods) throws Exception {
+        String unit = SourceExtractor.extract(artifact.path);
+        if (unit == null) {
+            return SuiteResult.failed(artifact, SuiteResult.Status.NO_SOURCE, "no fenced code block");
+        }
+        String unitHash = ResultCache.hash(unit);
+
+        Map<String, Boolean> tests = new LinkedHashMap<>();
+        Map<String, String> pending = new LinkedHashMap<>();
+        for (String method : methods) {
+            String key = ResultCache.hash("outcome", unitHash, suite.fingerprint(method), JDK);
+            byte[] cached = cache == null ? null : cache.get(key);
+            if (cached != null) {
+                tests.put(method, cached[0] == 1);
+            } else {
+                pending.put(method, key);
+            }
+        }
+        if (pending.isEmpty()) {
+            return new SuiteResult(artifact, SuiteResult.Status.TESTED, tests, null);
+        }
+
+        Compiled compiled = compile(artifact, suite, unit, unitHash);
+        if (compiled.errors != null) {
+            return SuiteResult.failed(artifact, SuiteResult.Status.COMPILE_ERROR, compiled.errors);
+        }
+        ClassLoader loader = new CandidateClassLoader(compiled.classes, getClass().getClassLoader());
+        Class<?> testClass = Class.forName(artifact.game.testClassName(), false, loader);
+        boolean timedOut = false;
+        try {
+            for (Map.Entry<String, String> method : pending.entrySet()) {
+                Boolean passed = Sandbox.run(() -> SuiteMain.runTest(testClass, method.getKey()), loader, testWallMillis, testCpuMillis);
+                tests.put(method.getKey(), Boolean.TRUE.equals(passed));
+                if (passed == null) {
+                    // Not cached: a timeout can come from an overloaded machine rather than the candidate
+                    timedOut = true;
+                } else if (cache != null) {
+                    cache.put(method.getValue(), new byte[]{(byte) (passed ? 1 : 0)});
+                }
+            }
+        } finally {
+            Sandbox.reap(loader);
+        }
+        SuiteResult.Status status = timedOut ? SuiteResult.Status.TIMEOUT : SuiteResult.Status.TESTED;
+        return new SuiteResult(artifact, status, tests, compiled.stubbed.isEmpty() ? null : "stubbed " + compiled.stubbed);
+    }
+
+    private Compiled compile(Artifact artifact, TestSuite suite, String unit, String unitHash) throws IOException {
+        String key = ResultCache.hash("classes", unitHash, suite.source, JDK);
+        byte[] cached = cache == null ? null : cache.get(key);
+        if (cached != null) {
+            return Compiled.decode(cached);
+        }
+
+        Compiled compiled = new Compiled();
+        while (true) {
+            Map<String, String> sources = new LinkedHashMap<>();
+            sources.put("org.example." + artifact.game.projectName, Sandbox.rewrite(unit));
+            sources.put(artifact.game.testClassName(), Sandbox.rewrite(suite.withStubbedMethods(compiled.stubbed)));
+            InMemoryCompiler.Result result = compiler.compile(sources);
+            if (result.succeeded()) {
+                compiled.classes = result.classes;
+                break;
+            }
+            if (!compiled.stubbed.addAll(suite.methodsAtLines(result.errorLines(suite.fileName())))) {
+                compiled.errors = result.describeErrors();
+                break;
+            }
+        }
+        if (cache != null) {
+            cache.put(key, compiled.encode());
+        }
+        return compiled;
+    }
+
+    // A compiled candidate and test class, or the compiler errors if they don't compile
+    private static final class Compiled {
+        Map<String, byte[]> classes = new HashMap<>();
+        Set<String> stubbed = new TreeSet<>();
+        String errors;
+
+        byte[] encode() throws IOException {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (DataOutputStream out = new DataOutputStream(bytes)) {
+                out.writeBoolean(errors != null);
+                if (errors != null) {
+                    out.write(errors.getBytes(StandardCharsets.UTF_8));
+                    return bytes.toByteArray();
+                }
+                out.writeInt(stubbed.size());
+                for (String method : stubbed) {
+                    out.writeUTF(method);
+                }
+                out.writeInt(classes.size());
+                for (Map.Entry<String, byte[]> type : classes.entrySet()) {
+                    out.writeUTF(type.getKey());
+                    out.writeInt(type.getValue().length);
+                    out.write(type.getValue());
+                }
+            }
+            return bytes.toByteArray();
+        }
+
+        static Compiled decode(byte[] encoded) throws IOException {
+            Compiled compiled = new Compiled();
+            try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(encoded))) {
+                if (in.readBoolean()) {
+                    compiled.errors = new String(encoded, 1, encoded.length - 1, StandardCharsets.UTF_8);
+                    return compiled;
+                }
+                for (int i = in.readInt(); i > 0; i--) {
+                    compiled.stubbed.add(in.readUTF());
+                }
+                for (int i = in.readInt(); i > 0; i--) {
+                    String name = in.readUTF();
+                    byte[] bytes = new byte[in.readInt()];
+                    in.readFully(bytes);
+                    compiled.classes.put(name, bytes);
+                }
+            }
+            return compiled;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package org.example.evaluator;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Requirement number -> test methods, per game, built from the test method name suffixes. Tells the
+ * incremental mode which tests to run again after a requirement (or its smelly variant) was edited.
+ */
+final class RequirementIndex {
+    private final Map<GameKind, Map<Integer, Set<String>>> tests = new EnumMap<>(GameKind.class);
+
+    RequirementIndex(Map<GameKind, TestSuite> suites) {
+        for (TestSuite suite : suites.values()) {
+            Map<Integer, Set<String>> byRequirement = new TreeMap<>();
+            for (Map.Entry<String, List<Integer>> test : suite.requirements.entrySet()) {
+                for (int requirement : test.getValue()) {
+                    byRequirement.computeIfAbsent(requirement, r -> new LinkedHashSet<>()).add(test.getKey());
+                }
+            }
+            tests.put(suite.game, byRequirement);
+        }
+    }
+
+    Set<String> tests(GameKind game, int requirement) {
+        Map<Integer, Set<String>> byRequirement = tests.get(game);
+        Set<String> methods = byRequirement == null ? null : byRequirement.get(requirement);
+        return methods == null ? Collections.<String>emptySet() : methods;
+    }
+
+    /**
+     * Parses a list such as "dice:18,snake:13,7" into the affected tests per game. A bare number
+     * applies to every game; games without a test for the requirement are left out.
+     */
+    Map<GameKind, Set<String>> affected(String spec) {
+        Map<GameKind, Set<String>> affected = new EnumMap<>(GameKind.class);
+        for (String item : spec.split(",")) {
+            String[] parts = item.trim().split(":");
+            int requirement = Integer.parseInt(parts[parts.length - 1].trim());
+            for (GameKind game : GameKind.values()) {
+                if (parts.length == 1 || game.filePrefix.equals(parts[0].trim().toLowerCase(Locale.ROOT) + "_")) {
+                    Set<String> methods = tests(game, requirement);
+                    if (!methods.isEmpty()) {
+                        affected.computeIfAbsent(game, g -> new LinkedHashSet<>()).addAll(methods);
+                    }
+                }
+            }
+        }
+        return affected;
+    }
+}
@@ -0,0 +1,105 @@
+package org.example.evaluator;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Content-addressed on-disk store for compiled candidates and test outcomes. Keys are SHA-256 hashes of
+ * everything the value depends on; entries live in ab/abcdef... files. Reads refresh the modification
+ * time, and {@link #evict()} removes the least recently used entries above the size limit.
+ */
+final class ResultCache {
+    private final Path dir;
+    private final long maxBytes;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    ResultCache(Path dir, long maxBytes) throws IOException {
+        this.dir = Files.createDirectories(dir);
+        this.maxBytes = maxBytes;
+    }
+
+    static String hash(String... parts) {
+        try {
+            MessageDigest sha = MessageDigest.getInstance("SHA-256");
+            for (String part : parts) {
+                sha.update(part.getBytes(StandardCharsets.UTF_8));
+                // Separator, so that ("ab", "c") and ("a", "bc") differ
+                sha.update((byte) 0);
+            }
+            StringBuilder hex = new StringBuilder();
+            for (byte b : sha.digest()) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Returns null on a miss
+    byte[] get(String key) throws IOException {
+        Path file = file(key);
+        try {
+            byte[] value = Files.readAllBytes(file);
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+            hits.incrementAndGet();
+            return value;
+        } catch (NoSuchFileException e) {
+            misses.incrementAndGet();
+            return null;
+        }
+    }
+
+    void put(String key, byte[] value) throws IOException {
+        Path file = file(key);
+        Files.createDirectories(file.getParent());
+        // Write then rename, so a concurrent reader never sees half an entry
+        Path temp = Files.createTempFile(file.getParent(), key, ".tmp");
+        Files.write(temp, value);
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    void evict() throws IOException {
+        List<Path> entries;
+        try (Stream<Path> files = Files.walk(dir)) {
+            entries = files.filter(Files::isRegularFile).collect(Collectors.toList());
+        }
+        Map<Path, FileTime> lastUsed = new HashMap<>();
+        long total = 0;
+        for (Path entry : entries) {
+            lastUsed.put(entry, Files.getLastModifiedTime(entry));
+            total += Files.size(entry);
+        }
+        entries.sort(Comparator.comparing(lastUsed::get));
+        for (Path entry : entries) {
+            if (total <= maxBytes) {
+                break;
+            }
+            total -= Files.size(entry);
+            Files.delete(entry);
+        }
+    }
+
+    String stats() {
+        return hits.get() + " hits, " + misses.get() + " misses";
+    }
+
+    private Path file(String key) {
+        return dir.resolve(key.substring(0, 2)).resolve(key);
+    }
+}
@@ -0,0 +1,139 @@
+package org.example.evaluator;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Per-requirement pass/fail matrix: one row per artifact, one column per requirement number.
+ * A requirement passes only if every test method covering it passes. Next to the matrix, a
+ * "_tests.csv" file keeps every single test outcome so an incremental run can be merged back in.
+ */
+final class ResultMatrix {
+    private final Map<GameKind, TestSuite> suites;
+    private final Map<String, SuiteResult> results = new TreeMap<>();
+    private final int maxRequirement;
+
+    ResultMatrix(Map<GameKind, TestSuite> suites) {
+        this.suites = suites;
+        int max = 0;
+        for (TestSuite suite : suites.values()) {
+            for (List<Integer> numbers : suite.requirements.values()) {
+                for (int number : numbers) {
+                    max = Math.max(max, number);
+                }
+            }
+        }
+        this.maxRequirement = max;
+    }
+
+    synchronized void add(SuiteResult result) {
+        results.put(result.artifact.id, result);
+    }
+
+    /**
+     * Replaces the outcomes of the given tests with those of a partial run. A candidate that no
+     * longer yields a compiling source replaces its whole row, and so does one whose previous row
+     * was not {@link SuiteResult.Status#TESTED}, as that row has no outcomes to keep.
+     */
+    synchronized void merge(SuiteResult result, Collection<String> tests) {
+        SuiteResult previous = results.get(result.artifact.id);
+        if (previous == null || previous.status != SuiteResult.Status.TESTED
+                || result.status == SuiteResult.Status.NO_SOURCE
+                || result.status == SuiteResult.Status.COMPILE_ERROR) {
+            results.put(result.artifact.id, result);
+            return;
+        }
+        Map<String, Boolean> merged = new LinkedHashMap<>(previous.tests);
+        for (String test : tests) {
+            merged.put(test, result.passed(test));
+        }
+        results.put(result.artifact.id, new SuiteResult(result.artifact, result.status, merged, result.detail));
+    }
+
+    // Loads the test outcomes written next to a matrix; artifacts no longer on disk are dropped
+    synchronized void read(Path csv, Map<String, Artifact> artifacts) throws IOException {
+        Map<String, SuiteResult.Status> statuses = new LinkedHashMap<>();
+        Map<String, Map<String, Boolean>> tests = new LinkedHashMap<>();
+        List<String> lines = Files.readAllLines(testsFile(csv), StandardCharsets.UTF_8);
+        for (String line : lines.subList(1, lines.size())) {
+            String[] cells = line.split(",", -1);
+            statuses.put(cells[0], SuiteResult.Status.valueOf(cells[1]));
+            Map<String, Boolean> outcomes = tests.computeIfAbsent(cells[0], id -> new LinkedHashMap<>());
+            if (!cells[2].isEmpty()) {
+                outcomes.put(cells[2], "1".equals(cells[3]));
+            }
+        }
+        for (Map.Entry<String, SuiteResult.Status> row : statuses.entrySet()) {
+            Artifact artifact = artifacts.get(row.getKey());
+            if (artifact != null) {
+                results.put(artifact.id, new SuiteResult(artifact, row.getValue(), tests.get(artifact.id), null));
+            }
+        }
+    }
+
+    synchronized SuiteResult get(String artifactId) {
+        return results.get(artifactId);
+    }
+
+    // Returns null if the game has no test for the requirement
+    Boolean requirement(SuiteResult result, int requirement) {
+        Boolean passed = null;
+        for (Map.Entry<String, List<Integer>> test : suites.get(result.artifact.game).requirements.entrySet()) {
+            if (test.getValue().contains(requirement)) {
+                passed = (passed == null || passed) && result.passed(test.getKey());
+            }
+        }
+        return passed;
+    }
+
+    synchronized void write(Path csv) throws IOException {
+        try (Writer out = Files.newBufferedWriter(csv, StandardCharsets.UTF_8)) {
+            out.write("artifact,game,status,passed,total");
+            for (int requirement = 1; requirement <= maxRequirement; requirement++) {
+                out.write(",R" + requirement);
+            }
+            out.write('\n');
+            for (SuiteResult result : results.values()) {
+                Map<String, List<Integer>> tests = suites.get(result.artifact.game).requirements;
+                int passed = 0;
+                for (String test : tests.keySet()) {
+                    if (result.passed(test)) {
+                        passed++;
+                    }
+                }
+                out.write(result.artifact.id + "," + result.artifact.game.projectName + "," + result.status
+                        + "," + passed + "," + tests.size());
+                for (int requirement = 1; requirement <= maxRequirement; requirement++) {
+                    Boolean cell = requirement(result, requirement);
+                    out.write(cell == null ? "," : cell ? ",1" : ",0");
+                }
+                out.write('\n');
+            }
+        }
+        try (Writer out = Files.newBufferedWriter(testsFile(csv), StandardCharsets.UTF_8)) {
+            out.write("artifact,status,test,passed\n");
+            for (SuiteResult result : results.values()) {
+                if (result.tests.isEmpty()) {
+                    out.write(result.artifact.id + "," + result.status + ",,\n");
+                }
+                for (Map.Entry<String, Boolean> test : result.tests.entrySet()) {
+                    out.write(result.artifact.id + "," + result.status + "," + test.getKey()
+                            + (test.getValue() ? ",1\n" : ",0\n"));
+                }
+            }
+        }
+    }
+
+    static Path testsFile(Path csv) {
+        String name = csv.getFileName().toString();
+        return csv.resolveSibling((name.endsWith(".csv") ? name.substring(0, name.length() - 4) : name) + "_tests.csv");
+    }
+}
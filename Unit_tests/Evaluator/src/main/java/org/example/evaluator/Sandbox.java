@@ -0,0 +1,187 @@
+package org.example.evaluator;
+
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+import java.util.regex.Pattern;
+
+/**
+ * Lets many candidates share one JVM. Each candidate has its own class loader; before compilation its
+ * uses of System.in/out/err, setIn/setOut/setErr and exit are redirected to the hooks below, which only
+ * affect the calling thread's {@link StdioRouter} binding. Each test runs on its own thread under a
+ * wall-clock and a CPU budget.
+ */
+public final class Sandbox {
+    private static final Pattern SYSTEM_CALLS =
+            Pattern.compile("(?<![\\w.])(?:java\\.lang\\.)?System\\s*\\.\\s*(setIn|setOut|setErr|exit)\\s*\\(");
+    private static final Pattern SYSTEM_STREAMS =
+            Pattern.compile("(?<![\\w.])(?:java\\.lang\\.)?System\\s*\\.\\s*(in|out|err)\\b");
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+    private static final long POLL_MILLIS = 10;
+
+    static {
+        if (THREADS.isThreadCpuTimeSupported() && !THREADS.isThreadCpuTimeEnabled()) {
+            THREADS.setThreadCpuTimeEnabled(true);
+        }
+    }
+
+    /** Thrown instead of exiting the JVM; an Error so that generated catch (Exception) blocks let it through. */
+    public static final class ExitCalled extends Error {
+        private static final long serialVersionUID = 1L;
+
+        ExitCalled(int status) {
+            super("System.exit(" + status + ")");
+        }
+    }
+
+    private Sandbox() {
+    }
+
+    public static InputStream in() {
+        return binding().in;
+    }
+
+    public static PrintStream out() {
+        return binding().out;
+    }
+
+    public static PrintStream err() {
+        return binding().err;
+    }
+
+    public static void setIn(InputStream in) {
+        binding().in = in;
+    }
+
+    public static void setOut(PrintStream out) {
+        binding().out = out;
+    }
+
+    public static void setErr(PrintStream err) {
+        binding().err = err;
+    }
+
+    public static void exit(int status) {
+        throw new ExitCalled(status);
+    }
+
+    private static StdioRouter.Binding binding() {
+        StdioRouter.Binding binding = StdioRouter.current();
+        if (binding == null) {
+            throw new IllegalStateException("Sandboxed code running outside Sandbox.run");
+        }
+        return binding;
+    }
+
+    /**
+     * Line-preserving, so compiler diagnostics still refer to the original source. Reads of System.in/out
+     * are rewritten too: a Scanner or saved stream must keep the stream that was current when it was
+     * taken, exactly as with the real fields, rather than follow later setIn/setOut calls. String, char
+     * and text block literals and comments are copied as they are, so printed text keeps saying System.out.
+     */
+    static String rewrite(String source) {
+        StringBuilder out = new StringBuilder(source.length() + 256);
+        int code = 0;
+        for (int i = 0; i < source.length(); ) {
+            int end = skipLiteral(source, i);
+            if (end == i) {
+                i++;
+                continue;
+            }
+            out.append(rewriteCode(source.substring(code, i))).append(source, i, end);
+            code = end;
+            i = end;
+        }
+        return out.append(rewriteCode(source.substring(code))).toString();
+    }
+
+    private static String rewriteCode(String code) {
+        String calls = SYSTEM_CALLS.matcher(code).replaceAll("org.example.evaluator.Sandbox.$1(");
+        return SYSTEM_STREAMS.matcher(calls).replaceAll("org.example.evaluator.Sandbox.$1()");
+    }
+
+    // The end of the literal or comment starting at i, or i if none starts there
+    private static int skipLiteral(String source, int i) {
+        if (source.startsWith("//", i)) {
+            int newline = source.indexOf('\n', i);
+            return newline < 0 ? source.length() : newline;
+        }
+        if (source.startsWith("/*", i)) {
+            int close = source.indexOf("*/", i + 2);
+            return close < 0 ? source.length() : close + 2;
+        }
+        if (source.startsWith("\"\"\"", i)) {
+            return closing(source, i + 3, "\"\"\"");
+        }
+        char c = source.charAt(i);
+        return c == '"' || c == '\'' ? closing(source, i + 1, String.valueOf(c)) : i;
+    }
+
+    private static int closing(String source, int from, String quote) {
+        for (int i = from; i < source.length(); i++) {
+            if (source.charAt(i) == '\\') {
+                i++;
+            } else if (source.startsWith(quote, i)) {
+                return i + quote.length();
+            }
+        }
+        return source.length();
+    }
+
+    /**
+     * Runs the task on a new thread bound to an empty console. Returns null if it exceeded either budget,
+     * in which case the thread has been stopped.
+     */
+    static Boolean run(BooleanSupplier task, ClassLoader loader, long wallMillis, long cpuMillis) throws InterruptedException {
+        AtomicReference<Boolean> result = new AtomicReference<>(false);
+        Thread worker = new Thread(() -> {
+            StdioRouter.bind();
+            result.set(task.getAsBoolean());
+        }, "sandbox-" + Thread.currentThread().getName());
+        worker.setDaemon(true);
+        worker.setContextClassLoader(loader);
+        worker.start();
+
+        long wallDeadline = System.nanoTime() + wallMillis * 1_000_000L;
+        long cpuBudget = cpuMillis * 1_000_000L;
+        while (true) {
+            worker.join(POLL_MILLIS);
+            if (!worker.isAlive()) {
+                return result.get();
+            }
+            long cpu = THREADS.getThreadCpuTime(worker.getId());
+            if (System.nanoTime() > wallDeadline || cpu > cpuBudget) {
+                kill(worker);
+                return null;
+            }
+        }
+    }
+
+    /** Stops threads the candidate left running, recognized by the candidate's context class loader. */
+    static void reap(ClassLoader loader) {
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            // AWT and the Swing timer queue are shared JVM-wide even when a candidate started them
+            String name = thread.getName();
+            if (thread.getContextClassLoader() == loader && !name.startsWith("AWT-") && !name.startsWith("TimerQueue")) {
+                kill(thread);
+            }
+        }
+    }
+
+    @SuppressWarnings("deprecation")
+    private static void kill(Thread thread) {
+        thread.interrupt();
+        try {
+            thread.join(POLL_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (thread.isAlive()) {
+            // A generated game spinning in a loop ignores interrupts; nothing else can get the thread back
+            thread.stop();
+        }
+    }
+}
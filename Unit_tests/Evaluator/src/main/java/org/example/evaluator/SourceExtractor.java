@@ -0,0 +1,127 @@
+package org.example.evaluator;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Turns an LLM markdown response into the contents of Unit_tests/&lt;Game&gt;/src/main/java/org/example/&lt;Game&gt;.java.
+ * The response is scanned once, line by line, straight from the mapped file: code block lines are copied
+ * as bytes, package lines are dropped in favour of a single {@code package org.example;}, and the import
+ * lines of all blocks are de-duplicated and hoisted above the first type.
+ */
+final class SourceExtractor {
+    private static final byte[] FENCE = bytes("```");
+    private static final byte[] PACKAGE = bytes("package ");
+    private static final byte[] IMPORT = bytes("import ");
+    private static final byte[] JAVA = bytes("java");
+
+    private SourceExtractor() {
+    }
+
+    static String extract(Path response) throws IOException {
+        try (FileChannel channel = FileChannel.open(response, StandardOpenOption.READ)) {
+            return extract(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    // Returns null if the response has no fenced code block (a few DeepSeek responses are empty)
+    static String extract(ByteBuffer response) {
+        Set<String> imports = new LinkedHashSet<>();
+        // The code never outgrows the response (plus a final newline), so one array holds it and lines are bulk-copied in
+        byte[] body = new byte[response.remaining() + 1];
+        int length = 0;
+        ByteBuffer lines = response.duplicate();
+        boolean found = false;
+        // Inside a block; code is false for blocks in another language (```bash, ```text)
+        boolean inBlock = false;
+        boolean code = false;
+        int limit = response.limit();
+        for (int start = response.position(); start < limit; ) {
+            int end = start;
+            while (end < limit && response.get(end) != '\n') {
+                end++;
+            }
+            int text = skipBlanks(response, start, end);
+            if (startsWith(response, text, end, FENCE)) {
+                if (!inBlock) {
+                    int info = skipBlanks(response, text + FENCE.length, end);
+                    code = info == trimEnd(response, info, end) || isJava(response, info, end);
+                    found |= code;
+                }
+                inBlock = !inBlock;
+            } else if (inBlock && code && startsWith(response, text, end, IMPORT)) {
+                imports.add(string(response, text, trimEnd(response, text, end)));
+            } else if (inBlock && code && !startsWith(response, text, end, PACKAGE)) {
+                lines.position(start);
+                lines.get(body, length, end - start);
+                length += end - start;
+                body[length++] = '\n';
+            }
+            start = end + 1;
+        }
+        if (!found) {
+            return null;
+        }
+        StringBuilder unit = new StringBuilder(length + 64 * imports.size() + 32).append("package org.example;\n\n");
+        for (String line : imports) {
+            unit.append(line).append('\n');
+        }
+        if (!imports.isEmpty()) {
+            unit.append('\n');
+        }
+        return unit.append(new String(body, 0, length, StandardCharsets.UTF_8)).toString();
+    }
+
+    private static int skipBlanks(ByteBuffer buffer, int from, int end) {
+        while (from < end && (buffer.get(from) == ' ' || buffer.get(from) == '\t')) {
+            from++;
+        }
+        return from;
+    }
+
+    private static int trimEnd(ByteBuffer buffer, int from, int end) {
+        while (end > from && Character.isWhitespace(buffer.get(end - 1))) {
+            end--;
+        }
+        return end;
+    }
+
+    private static boolean startsWith(ByteBuffer buffer, int from, int end, byte[] prefix) {
+        if (end - from < prefix.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if (buffer.get(from + i) != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // The info string is java on its own or followed by a blank, so ```javascript is not Java
+    private static boolean isJava(ByteBuffer buffer, int info, int end) {
+        if (!startsWith(buffer, info, end, JAVA)) {
+            return false;
+        }
+        int word = info + JAVA.length;
+        return word == trimEnd(buffer, word, end) || buffer.get(word) == ' ' || buffer.get(word) == '\t';
+    }
+
+    private static String string(ByteBuffer buffer, int from, int end) {
+        byte[] bytes = new byte[end - from];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = buffer.get(from + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static byte[] bytes(String ascii) {
+        return ascii.getBytes(StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,151 @@
+package org.example.evaluator;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.Locale;
+
+/**
+ * Replaces System.in, System.out and System.err with streams that forward to whatever the calling
+ * thread has bound, so candidates running on different threads each see their own console. Bindings
+ * are inherited by threads a candidate starts. Unbound threads use the real console.
+ */
+final class StdioRouter {
+    static final PrintStream DISCARD = new PrintStream(new OutputStream() {
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+    });
+
+    static final class Binding {
+        volatile InputStream in = new ByteArrayInputStream(new byte[0]);
+        volatile PrintStream out = DISCARD;
+        volatile PrintStream err = DISCARD;
+    }
+
+    private static final InheritableThreadLocal<Binding> BINDING = new InheritableThreadLocal<>();
+    // The streams that were installed before the router, used by unbound threads
+    private static volatile InputStream consoleIn = System.in;
+    private static volatile PrintStream consoleOut = System.out;
+    private static volatile PrintStream consoleErr = System.err;
+
+    static final RoutingInputStream IN = new RoutingInputStream();
+    static final RoutingPrintStream OUT = new RoutingPrintStream(false);
+    static final RoutingPrintStream ERR = new RoutingPrintStream(true);
+
+    private StdioRouter() {
+    }
+
+    static synchronized void install() {
+        if (System.in != IN) {
+            consoleIn = System.in;
+            consoleOut = System.out;
+            consoleErr = System.err;
+            System.setIn(IN);
+            System.setOut(OUT);
+            System.setErr(ERR);
+        }
+    }
+
+    // Binds a fresh console (empty stdin, discarded output) to the calling thread and its future children
+    static void bind() {
+        BINDING.set(new Binding());
+    }
+
+    static Binding current() {
+        return BINDING.get();
+    }
+
+    private static InputStream in() {
+        Binding binding = BINDING.get();
+        return binding == null ? consoleIn : binding.in;
+    }
+
+    private static PrintStream out(boolean err) {
+        Binding binding = BINDING.get();
+        if (binding == null) {
+            return err ? consoleErr : consoleOut;
+        }
+        return err ? binding.err : binding.out;
+    }
+
+    static final class RoutingInputStream extends InputStream {
+
+        @Override
+        public int read() throws IOException {
+            return in().read();
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            return in().read(b, off, len);
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            return in().skip(n);
+        }
+
+        @Override
+        public int available() throws IOException {
+            return in().available();
+        }
+
+        @Override
+        public void close() {
+            // Scanner.close() on System.in must not close another candidate's input
+        }
+    }
+
+    // Every method forwards, so the shared lock and encoder of PrintStream are never used
+    static final class RoutingPrintStream extends PrintStream {
+        private final boolean err;
+
+        RoutingPrintStream(boolean err) {
+            super(DISCARD);
+            this.err = err;
+        }
+
+        private PrintStream target() {
+            return out(err);
+        }
+
+        @Override public void write(int b) { target().write(b); }
+        @Override public void write(byte[] buf, int off, int len) { target().write(buf, off, len); }
+        @Override public void flush() { target().flush(); }
+        @Override public void close() { target().flush(); }
+        @Override public boolean checkError() { return target().checkError(); }
+        @Override public void print(boolean b) { target().print(b); }
+        @Override public void print(char c) { target().print(c); }
+        @Override public void print(int i) { target().print(i); }
+        @Override public void print(long l) { target().print(l); }
+        @Override public void print(float f) { target().print(f); }
+        @Override public void print(double d) { target().print(d); }
+        @Override public void print(char[] s) { target().print(s); }
+        @Override public void print(String s) { target().print(s); }
+        @Override public void print(Object obj) { target().print(obj); }
+        @Override public void println() { target().println(); }
+        @Override public void println(boolean x) { target().println(x); }
+        @Override public void println(char x) { target().println(x); }
+        @Override public void println(int x) { target().println(x); }
+        @Override public void println(long x) { target().println(x); }
+        @Override public void println(float x) { target().println(x); }
+        @Override public void println(double x) { target().println(x); }
+        @Override public void println(char[] x) { target().println(x); }
+        @Override public void println(String x) { target().println(x); }
+        @Override public void println(Object x) { target().println(x); }
+        @Override public PrintStream printf(String format, Object... args) { target().printf(format, args); return this; }
+        @Override public PrintStream printf(Locale l, String format, Object... args) { target().printf(l, format, args); return this; }
+        @Override public PrintStream format(String format, Object... args) { target().format(format, args); return this; }
+        @Override public PrintStream format(Locale l, String format, Object... args) { target().format(l, format, args); return this; }
+        @Override public PrintStream append(CharSequence csq) { target().append(csq); return this; }
+        @Override public PrintStream append(CharSequence csq, int start, int end) { target().append(csq, start, end); return this; }
+        @Override public PrintStream append(char c) { target().append(c); return this; }
+    }
+}
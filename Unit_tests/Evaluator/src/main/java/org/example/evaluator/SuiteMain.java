@@ -0,0 +1,52 @@
+package org.example.evaluator;
+
+import org.junit.Test;
+import org.junit.runner.JUnitCore;
+import org.junit.runner.Request;
+
+import java.io.PrintWriter;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Entry point of the forked test JVM: runs every test method (or only those named after the results
+ * file) on its own and writes "PASS name" or "FAIL name" lines to the results file as it goes, so a
+ * run killed by the timeout keeps what it has.
+ */
+public final class SuiteMain {
+
+    private SuiteMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Class<?> testClass = Class.forName(args[0]);
+        try (PrintWriter results = new PrintWriter(Files.newBufferedWriter(Paths.get(args[1]), StandardCharsets.UTF_8))) {
+            List<String> methods = args.length > 2 ? Arrays.asList(args).subList(2, args.length) : testMethods(testClass);
+            for (String method : methods) {
+                results.println((runTest(testClass, method) ? "PASS " : "FAIL ") + method);
+                results.flush();
+            }
+        }
+        // Generated games may leave Swing timers or other non-daemon threads behind
+        System.exit(0);
+    }
+
+    static List<String> testMethods(Class<?> testClass) {
+        List<String> methods = new ArrayList<>();
+        for (Method method : testClass.getMethods()) {
+            if (method.isAnnotationPresent(Test.class)) {
+                methods.add(method.getName());
+            }
+        }
+        return methods;
+    }
+
+    static boolean runTest(Class<?> testClass, String method) {
+        return new JUnitCore().run(Request.method(testClass, method)).wasSuccessful();
+    }
+}
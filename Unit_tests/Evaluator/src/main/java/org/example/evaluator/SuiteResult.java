@@ -0,0 +1,38 @@
+package org.example.evaluator;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Outcome of running one game's test class against one artifact.
+ */
+final class SuiteResult {
+
+    enum Status {
+        TESTED,
+        NO_SOURCE,
+        COMPILE_ERROR,
+        TIMEOUT
+    }
+
+    final Artifact artifact;
+    final Status status;
+    // Test method name -> passed; tests that never ran are missing
+    final Map<String, Boolean> tests;
+    final String detail;
+
+    SuiteResult(Artifact artifact, Status status, Map<String, Boolean> tests, String detail) {
+        this.artifact = artifact;
+        this.status = status;
+        this.tests = tests;
+        this.detail = detail;
+    }
+
+    static SuiteResult failed(Artifact artifact, Status status, String detail) {
+        return new SuiteResult(artifact, status, Collections.<String, Boolean>emptyMap(), detail);
+    }
+
+    boolean passed(String testMethod) {
+        return Boolean.TRUE.equals(tests.get(testMethod));
+    }
+}
@@ -0,0 +1,12 @@
+package org.example.evaluator;
+
+import java.util.Collection;
+
+/**
+ * Runs a game's test class against one generated artifact. Implementations must be thread-safe.
+ */
+interface SuiteRunner {
+
+    // Runs only the given test methods of the suite
+    SuiteResult run(Artifact artifact, TestSuite suite, Collection<String> tests) throws Exception;
+}
@@ -0,0 +1,176 @@
+package org.example.evaluator;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The unit test class of one game together with the requirements each test method covers.
+ */
+final class TestSuite {
+    private static final Pattern TEST_METHOD = Pattern.compile(
+            "@Test\\s+public\\s+void\\s+(\\w+)\\s*\\(\\s*\\)[^{]*\\{[ \\t]*(?://[ \\t]*Req\\w*\\s+(\\d+))?");
+    private static final Pattern SUFFIX = Pattern.compile("(\\d+(?:and\\d+)*)$");
+
+    final GameKind game;
+    final String source;
+    // Test method name -> requirement numbers, in declaration order
+    final Map<String, List<Integer>> requirements = new LinkedHashMap<>();
+    // Test method name -> {offset after the opening brace, offset of the closing brace}
+    private final Map<String, int[]> bodies = new LinkedHashMap<>();
+    // Hash of the source with every test method body removed
+    private final String sharedHash;
+
+    TestSuite(GameKind game, String source) {
+        this.game = game;
+        this.source = source;
+        parse();
+        StringBuilder shared = new StringBuilder(source);
+        List<int[]> ranges = new ArrayList<>(bodies.values());
+        ranges.sort((a, b) -> b[0] - a[0]);
+        for (int[] range : ranges) {
+            shared.delete(range[0], range[1]);
+        }
+        this.sharedHash = ResultCache.hash(shared.toString());
+    }
+
+    static Map<GameKind, TestSuite> loadAll(Path root) throws IOException {
+        Map<GameKind, TestSuite> suites = new EnumMap<>(GameKind.class);
+        for (GameKind game : GameKind.values()) {
+            String source = new String(Files.readAllBytes(game.testSource(root)), StandardCharsets.UTF_8);
+            suites.put(game, new TestSuite(game, source));
+        }
+        return suites;
+    }
+
+    String fileName() {
+        return game.projectName + "Test.java";
+    }
+
+    // testPlayerTurnConditions3and4and5 -> [3, 4, 5], testGameHas33Levels1 -> [1]
+    static List<Integer> fromMethodName(String methodName) {
+        Matcher matcher = SUFFIX.matcher(methodName);
+        if (!matcher.find()) {
+            return Collections.emptyList();
+        }
+        List<Integer> numbers = new ArrayList<>();
+        for (String number : matcher.group(1).split("and")) {
+            numbers.add(Integer.parseInt(number));
+        }
+        return numbers;
+    }
+
+    // The test methods whose bodies contain the given 1-based source lines
+    Set<String> methodsAtLines(Collection<Long> lines) {
+        Set<String> methods = new TreeSet<>();
+        for (long line : lines) {
+            for (Map.Entry<String, int[]> body : bodies.entrySet()) {
+                if (line >= lineOf(body.getValue()[0]) && line <= lineOf(body.getValue()[1])) {
+                    methods.add(body.getKey());
+                }
+            }
+        }
+        return methods;
+    }
+
+    /**
+     * Replaces the bodies of the given methods with a failing assertion. Generated games rarely match
+     * every signature the tests use; stubbing keeps the rest of the suite compilable so the matrix only
+     * loses the requirements that really don't link. Line breaks are kept so diagnostics still point
+     * at the original lines.
+     */
+    String withStubbedMethods(Collection<String> methods) {
+        StringBuilder stubbed = new StringBuilder(source);
+        List<int[]> ranges = new ArrayList<>();
+        for (String method : methods) {
+            ranges.add(bodies.get(method));
+        }
+        ranges.sort((a, b) -> b[0] - a[0]);
+        for (int[] range : ranges) {
+            StringBuilder body = new StringBuilder(" org.junit.Assert.fail(\"does not compile against this candidate\");");
+            for (int i = range[0]; i < range[1]; i++) {
+                if (source.charAt(i) == '\n') {
+                    body.append('\n');
+                }
+            }
+            stubbed.replace(range[0], range[1], body.toString());
+        }
+        return stubbed.toString();
+    }
+
+    /**
+     * Hash of everything a test method's outcome depends on in the test class: its own body plus the
+     * code outside all test methods (fields, setup). Editing one test method leaves the others' intact.
+     */
+    String fingerprint(String method) {
+        int[] body = bodies.get(method);
+        return ResultCache.hash(sharedHash, method, source.substring(body[0], body[1]));
+    }
+
+    private long lineOf(int offset) {
+        long line = 1;
+        for (int i = 0; i < offset; i++) {
+            if (source.charAt(i) == '\n') {
+                line++;
+            }
+        }
+        return line;
+    }
+
+    private void parse() {
+        Matcher matcher = TEST_METHOD.matcher(source);
+        while (matcher.find()) {
+            List<Integer> numbers = fromMethodName(matcher.group(1));
+            // A few methods (e.g. testPlayerCount) carry the number only in a trailing "// Requirement 1"
+            if (numbers.isEmpty() && matcher.group(2) != null) {
+                numbers = Collections.singletonList(Integer.parseInt(matcher.group(2)));
+            }
+            requirements.put(matcher.group(1), numbers);
+            int open = source.lastIndexOf('{', matcher.end());
+            bodies.put(matcher.group(1), new int[]{open + 1, closingBrace(open)});
+        }
+    }
+
+    // Skips braces inside string and char literals and comments
+    private int closingBrace(int open) {
+        int depth = 0;
+        for (int i = open; i < source.length(); i++) {
+            char c = source.charAt(i);
+            if (c == '"' || c == '\'') {
+                for (i++; i < source.length() && source.charAt(i) != c; i++) {
+                    if (source.charAt(i) == '\\') {
+                        i++;
+                    }
+                }
+            } else if (source.startsWith("//", i)) {
+                i = source.indexOf('\n', i);
+                if (i < 0) {
+                    break;
+                }
+            } else if (source.startsWith("/*", i)) {
+                i = source.indexOf("*/", i + 2);
+                if (i < 0) {
+                    break;
+                }
+                i++;
+            } else if (c == '{') {
+                depth++;
+            } else if (c == '}' && --depth == 0) {
+                return i;
+            }
+        }
+        throw new IllegalStateException("Unbalanced braces in " + fileName());
+    }
+}
@@ -0,0 +1,41 @@
+package org.example.evaluator;
+
+import org.junit.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class InMemoryCompilerTest {
+
+    @Test
+    public void testCompilesAndLoadsPackagePrivateClasses() throws Exception {
+        Map<String, String> sources = new LinkedHashMap<>();
+        sources.put("org.example.DiceGame", "package org.example;\nclass Player { int points = 6; }\npublic class DiceGame {}\n");
+        sources.put("org.example.DiceGameTest", "package org.example;\npublic class DiceGameTest {\n"
+                + "    public int points() { return new Player().points; }\n}\n");
+
+        InMemoryCompiler.Result result = new InMemoryCompiler().compile(sources);
+        assertTrue(result.describeErrors(), result.succeeded());
+        assertTrue(result.classes.containsKey("org.example.Player"));
+
+        ClassLoader loader = new CandidateClassLoader(result.classes, getClass().getClassLoader());
+        Class<?> testClass = loader.loadClass("org.example.DiceGameTest");
+        assertEquals(6, testClass.getMethod("points").invoke(testClass.newInstance()));
+    }
+
+    @Test
+    public void testReportsErrorLinesPerFile() {
+        Map<String, String> sources = new LinkedHashMap<>();
+        sources.put("org.example.SnakeGame", "package org.example;\nclass Snake {}\n");
+        sources.put("org.example.SnakeGameTest", "package org.example;\npublic class SnakeGameTest {\n"
+                + "    void test() {\n        new Snake().move();\n    }\n}\n");
+
+        InMemoryCompiler.Result result = new InMemoryCompiler().compile(sources);
+        assertFalse(result.succeeded());
+        assertEquals(4L, (long) result.errorLines("SnakeGameTest.java").get(0));
+        assertTrue(result.errorLines("SnakeGame.java").isEmpty());
+        assertTrue(result.classes.isEmpty());
+    }
+}
@@ -0,0 +1,114 @@
+package org.example.evaluator;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class RequirementIndexTest {
+
+    private static final String DICE = "public class DiceGameTest {\n"
+            + "    @Test\n"
+            + "    public void testPlayerCount() { // Requirement 1\n"
+            + "    }\n"
+            + "    @Test\n"
+            + "    public void testPlayerTurnConditions3and4and18() {\n"
+            + "    }\n"
+            + "    @Test\n"
+            + "    public void testDiceMultiply18() {\n"
+            + "    }\n"
+            + "}\n";
+
+    private static final String SNAKE = "public class SnakeGameTest {\n"
+            + "    @Test\n"
+            + "    public void testGoldenBonusFood13() {\n"
+            + "    }\n"
+            + "}\n";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static Map<GameKind, TestSuite> suites() {
+        Map<GameKind, TestSuite> suites = new EnumMap<>(GameKind.class);
+        suites.put(GameKind.DICE, new TestSuite(GameKind.DICE, DICE));
+        suites.put(GameKind.SNAKE, new TestSuite(GameKind.SNAKE, SNAKE));
+        return suites;
+    }
+
+    @Test
+    public void testAffectedTests() {
+        RequirementIndex index = new RequirementIndex(suites());
+
+        assertEquals(new LinkedHashSet<>(Arrays.asList("testPlayerTurnConditions3and4and18", "testDiceMultiply18")),
+                index.tests(GameKind.DICE, 18));
+        assertTrue(index.tests(GameKind.SNAKE, 18).isEmpty());
+        assertEquals(Collections.singleton(GameKind.DICE), index.affected("dice:18,dice:2").keySet());
+        Map<GameKind, Set<String>> everyGame = index.affected("13, 1");
+        assertEquals(Collections.singleton("testPlayerCount"), everyGame.get(GameKind.DICE));
+        assertEquals(Collections.singleton("testGoldenBonusFood13"), everyGame.get(GameKind.SNAKE));
+    }
+
+    @Test
+    public void testMergeKeepsUnaffectedOutcomes() throws Exception {
+        Map<GameKind, TestSuite> suites = suites();
+        Artifact artifact = new Artifact(Paths.get("dice_1.txt"), "rq1_results/dice_1.txt", GameKind.DICE);
+        Map<String, Boolean> tests = new LinkedHashMap<>();
+        tests.put("testPlayerCount", true);
+        tests.put("testPlayerTurnConditions3and4and18", true);
+        tests.put("testDiceMultiply18", false);
+        ResultMatrix full = new ResultMatrix(suites);
+        full.add(new SuiteResult(artifact, SuiteResult.Status.TESTED, tests, null));
+        Path csv = folder.getRoot().toPath().resolve("results_matrix.csv");
+        full.write(csv);
+
+        ResultMatrix incremental = new ResultMatrix(suites);
+        incremental.read(csv, Collections.singletonMap(artifact.id, artifact));
+        Set<String> affected = new RequirementIndex(suites).tests(GameKind.DICE, 18);
+        Map<String, Boolean> rerun = new LinkedHashMap<>();
+        rerun.put("testPlayerTurnConditions3and4and18", true);
+        rerun.put("testDiceMultiply18", true);
+        incremental.merge(new SuiteResult(artifact, SuiteResult.Status.TESTED, rerun, null), affected);
+
+        SuiteResult merged = incremental.get(artifact.id);
+        assertTrue(merged.passed("testPlayerCount"));
+        assertTrue(merged.passed("testDiceMultiply18"));
+        assertEquals(Boolean.TRUE, incremental.requirement(merged, 18));
+    }
+
+    @Test
+    public void testMergeReplacesARowWithoutOutcomes() throws Exception {
+        Map<GameKind, TestSuite> suites = suites();
+        Artifact artifact = new Artifact(Paths.get("dice_1.txt"), "rq1_results/dice_1.txt", GameKind.DICE);
+        ResultMatrix full = new ResultMatrix(suites);
+        full.add(new SuiteResult(artifact, SuiteResult.Status.COMPILE_ERROR,
+                Collections.<String, Boolean>emptyMap(), null));
+        Path csv = folder.getRoot().toPath().resolve("results_matrix.csv");
+        full.write(csv);
+
+        // The evaluator runs the full suite for such a row, and all of it is kept
+        ResultMatrix incremental = new ResultMatrix(suites);
+        incremental.read(csv, Collections.singletonMap(artifact.id, artifact));
+        Map<String, Boolean> rerun = new LinkedHashMap<>();
+        rerun.put("testPlayerCount", true);
+        rerun.put("testPlayerTurnConditions3and4and18", true);
+        rerun.put("testDiceMultiply18", false);
+        incremental.merge(new SuiteResult(artifact, SuiteResult.Status.TESTED, rerun, null),
+                new RequirementIndex(suites).tests(GameKind.DICE, 18));
+
+        SuiteResult merged = incremental.get(artifact.id);
+        assertEquals(SuiteResult.Status.TESTED, merged.status);
+        assertEquals(rerun, merged.tests);
+        assertEquals(Boolean.TRUE, incremental.requirement(merged, 1));
+    }
+}
@@ -0,0 +1,51 @@
+package org.example.evaluator;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import static org.junit.Assert.*;
+
+public class ResultCacheTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testPutAndGet() throws Exception {
+        ResultCache cache = new ResultCache(folder.getRoot().toPath(), 1 << 20);
+        String key = ResultCache.hash("class DiceGame {}", "17");
+
+        assertNull(cache.get(key));
+        cache.put(key, new byte[]{1});
+        assertArrayEquals(new byte[]{1}, cache.get(key));
+        assertNotEquals(key, ResultCache.hash("class DiceGame {}1", "7"));
+    }
+
+    @Test
+    public void testEvictsLeastRecentlyUsed() throws Exception {
+        Path dir = folder.getRoot().toPath();
+        ResultCache cache = new ResultCache(dir, 250);
+        String old = ResultCache.hash("old");
+        String used = ResultCache.hash("used");
+        String fresh = ResultCache.hash("fresh");
+        cache.put(old, new byte[100]);
+        cache.put(used, new byte[100]);
+        cache.put(fresh, new byte[100]);
+        Files.setLastModifiedTime(dir.resolve(old.substring(0, 2)).resolve(old), FileTime.fromMillis(1000));
+        Files.setLastModifiedTime(dir.resolve(used.substring(0, 2)).resolve(used), FileTime.fromMillis(2000));
+        Files.setLastModifiedTime(dir.resolve(fresh.substring(0, 2)).resolve(fresh), FileTime.fromMillis(3000));
+        // Reading an entry makes it the most recently used
+        cache.get(used);
+
+        cache.evict();
+
+        assertNull(cache.get(old));
+        assertNotNull(cache.get(used));
+        assertNotNull(cache.get(fresh));
+    }
+}
@@ -0,0 +1,104 @@
+package org.example.evaluator;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.Scanner;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+public class SandboxTest {
+
+    @Test
+    public void testRewriteKeepsLines() {
+        String source = "System.setIn(new ByteArrayInputStream(b));\n"
+                + "Scanner s = new Scanner(System.in);\n"
+                + "private final PrintStream originalOut = System.out;\n"
+                + "java.lang.System.exit(0);\n"
+                + "long now = System.currentTimeMillis();\n";
+        String rewritten = Sandbox.rewrite(source);
+
+        assertEquals("org.example.evaluator.Sandbox.setIn(new ByteArrayInputStream(b));\n"
+                + "Scanner s = new Scanner(org.example.evaluator.Sandbox.in());\n"
+                + "private final PrintStream originalOut = org.example.evaluator.Sandbox.out();\n"
+                + "org.example.evaluator.Sandbox.exit(0);\n"
+                + "long now = System.currentTimeMillis();\n", rewritten);
+    }
+
+    @Test
+    public void testRewriteLeavesLiteralsAndComments() {
+        String source = "System.out.println(\"Call System.exit(0) or read System.in\\\" System.out\");\n"
+                + "char quote = '\"'; // System.out is routed\n"
+                + "/* System.exit(1);\n   */ System.err.print('\\'');\n";
+        String rewritten = Sandbox.rewrite(source);
+
+        assertEquals("org.example.evaluator.Sandbox.out().println(\"Call System.exit(0) or read System.in\\\" System.out\");\n"
+                + "char quote = '\"'; // System.out is routed\n"
+                + "/* System.exit(1);\n   */ org.example.evaluator.Sandbox.err().print('\\'');\n", rewritten);
+    }
+
+    @Test
+    public void testThreadsSeeTheirOwnConsole() throws Exception {
+        AtomicBoolean first = new AtomicBoolean();
+        AtomicBoolean second = new AtomicBoolean();
+        Thread a = new Thread(() -> first.set(echo("Alice")));
+        Thread b = new Thread(() -> second.set(echo("Bob")));
+        a.start();
+        b.start();
+        a.join();
+        b.join();
+
+        assertTrue(first.get());
+        assertTrue(second.get());
+    }
+
+    // What the game tests do: swap stdin/stdout, let the game read and print, check the output
+    private static boolean echo(String name) {
+        try {
+            return Sandbox.run(() -> {
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                Sandbox.setIn(new ByteArrayInputStream((name + "\n").getBytes()));
+                Sandbox.setOut(new PrintStream(out, true));
+                for (int i = 0; i < 1000; i++) {
+                    Thread.yield();
+                }
+                Sandbox.out().print("Hello " + new Scanner(Sandbox.in()).nextLine());
+                return out.toString().equals("Hello " + name);
+            }, SandboxTest.class.getClassLoader(), 5000, 5000);
+        } catch (InterruptedException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    @Test
+    public void testHungTestIsStopped() throws Exception {
+        long start = System.nanoTime();
+        Boolean result = Sandbox.run(() -> {
+            while (true) {
+                Math.sqrt(Math.random());
+            }
+        }, getClass().getClassLoader(), 2000, 200);
+
+        assertNull(result);
+        assertTrue((System.nanoTime() - start) / 1_000_000 < 2000);
+    }
+
+    @Test
+    public void testExitFailsInsteadOfStoppingTheJvm() throws Exception {
+        AtomicReference<Throwable> thrown = new AtomicReference<>();
+        Sandbox.run(() -> {
+            try {
+                Sandbox.exit(0);
+            } catch (Sandbox.ExitCalled e) {
+                thrown.set(e);
+            }
+            return true;
+        }, getClass().getClassLoader(), 1000, 1000);
+
+        assertNotNull(thrown.get());
+    }
+}
@@ -0,0 +1,58 @@
+package org.example.evaluator;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+
+public class SourceExtractorTest {
+
+    private static String extract(String response) {
+        return SourceExtractor.extract(ByteBuffer.wrap(response.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    public void testHoistsAndDeduplicatesImports() {
+        String response = "# Snake Game Implementation\n"
+                + "```java\n"
+                + "package com.example.snake;\n"
+                + "import java.util.*;\n"
+                + "import java.util.List;\n"
+                + "class Snake {}\n"
+                + "```\n"
+                + "And the game:\n"
+                + "```bash\n"
+                + "javac SnakeGame.java\n"
+                + "```\n"
+                + "```java\n"
+                + "import java.util.List;\n"
+                + "  import java.awt.Point;  \n"
+                + "public class SnakeGame {}\n"
+                + "```\n";
+
+        assertEquals("package org.example;\n\n"
+                + "import java.util.*;\n"
+                + "import java.util.List;\n"
+                + "import java.awt.Point;\n"
+                + "\n"
+                + "class Snake {}\n"
+                + "public class SnakeGame {}\n", extract(response));
+    }
+
+    @Test
+    public void testNoCodeBlock() {
+        assertNull(extract(""));
+        assertNull(extract("Sorry, I cannot help with that.\n```text\nnothing\n```\n"));
+        assertEquals("package org.example;\n\nclass Dice {}\n", extract("```\nclass Dice {}"));
+    }
+
+    @Test
+    public void testOnlyJavaInfoStrings() {
+        String response = "```javascript\nconst board = [];\n```\n"
+                + "```java title=\"Dice.java\"\nclass Dice {}\n```\n";
+        assertEquals("package org.example;\n\nclass Dice {}\n", extract(response));
+        assertNull(extract("```javascript\nconst board = [];\n```\n"));
+    }
+}
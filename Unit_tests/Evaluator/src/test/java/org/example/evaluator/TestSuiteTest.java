@@ -0,0 +1,57 @@
+package org.example.evaluator;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+public class TestSuiteTest {
+
+    private static final String SOURCE = "package org.example;\n"
+            + "\n"
+            + "public class DiceGameTest {\n"
+            + "    @Test\n"
+            + "    public void testPlayerCount() { // Requirement 1\n"
+            + "        Assert.assertTrue(game.players.size() == 3);\n"
+            + "    }\n"
+            + "\n"
+            + "    @Test\n"
+            + "    public void testPlayerTurnConditions3and4and5() {\n"
+            + "        String input = \"no\\n}\";\n"
+            + "        game.manageTurn(); // {\n"
+            + "    }\n"
+            + "\n"
+            + "    @Test\n"
+            + "    public void testGameEndConditionsReq22() {\n"
+            + "        Assert.assertFalse(game.checkGameEndConditions());\n"
+            + "    }\n"
+            + "}\n";
+
+    @Test
+    public void testRequirementsFromMethodNames() {
+        TestSuite suite = new TestSuite(GameKind.DICE, SOURCE);
+        assertEquals(Collections.singletonList(1), suite.requirements.get("testPlayerCount"));
+        assertEquals(Arrays.asList(3, 4, 5), suite.requirements.get("testPlayerTurnConditions3and4and5"));
+        assertEquals(Collections.singletonList(22), suite.requirements.get("testGameEndConditionsReq22"));
+        assertEquals(Collections.singletonList(1), TestSuite.fromMethodName("testGameHas33Levels1"));
+    }
+
+    @Test
+    public void testMethodsAtLines() {
+        TestSuite suite = new TestSuite(GameKind.DICE, SOURCE);
+        assertEquals(Collections.singleton("testPlayerTurnConditions3and4and5"), suite.methodsAtLines(Collections.singletonList(12L)));
+        assertTrue(suite.methodsAtLines(Collections.singletonList(3L)).isEmpty());
+    }
+
+    @Test
+    public void testStubbingKeepsLineNumbers() {
+        TestSuite suite = new TestSuite(GameKind.DICE, SOURCE);
+        String stubbed = suite.withStubbedMethods(Collections.singleton("testPlayerTurnConditions3and4and5"));
+
+        assertFalse(stubbed.contains("manageTurn"));
+        assertTrue(stubbed.contains("checkGameEndConditions"));
+        assertEquals(SOURCE.split("\n").length, stubbed.split("\n").length);
+    }
+}
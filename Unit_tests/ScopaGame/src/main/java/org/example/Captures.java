@@ -0,0 +1,157 @@
+package org.example;
+
+import java.util.Arrays;
+
+/**
+ * Capture search over a table held as a {@link Cards} mask, where the four cards of each value are
+ * adjacent and Coins lowest. A card of value v can take a table card of the same value or, when
+ * there is none, two or more cards summing to v. Such a sum is one of the partitions of v into
+ * smaller parts, at most 41 of them for 10, precomputed as cards-per-value counts. A partition
+ * applies when the table holds enough cards of each of its values, which is a popcount per value, so
+ * a search touches at most a few dozen candidates and never allocates.
+ */
+final class Captures {
+    // Room all() needs: a 10 has 1698 ways to take from a table holding every card but the tens
+    static final int MAX_CAPTURES = 2048;
+    private static final int VALUES = Cards.VALUES;
+    // Partitions of each value into two or more parts: three bits of count per part value, from value 1
+    private static final int[][] PARTITIONS = new int[VALUES + 1][];
+
+    static {
+        for (int value = 1; value <= VALUES; value++) {
+            int[] found = new int[64];
+            int count = partitions(value, value - 1, 0, found, 0);
+            PARTITIONS[value] = Arrays.copyOf(found, count);
+        }
+    }
+
+    private Captures() {
+    }
+
+    // Parts of at most max, adding the partitions of rest to found
+    private static int partitions(int rest, int max, int counts, int[] found, int count) {
+        if (rest == 0) {
+            found[count++] = counts;
+            return count;
+        }
+        for (int part = Math.min(rest, max); part >= 1; part--) {
+            int shift = (part - 1) * 3;
+            // At most four cards of a value exist
+            if ((counts >>> shift & 7) < Cards.SUITS) {
+                count = partitions(rest - part, part, counts + (1 << shift), found, count);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Every capture a card of the value can make on the table, written to out: the single cards of
+     * that value if there are any, otherwise every set of cards summing to it. Returns how many were
+     * found; out needs room for {@link #MAX_CAPTURES} of them.
+     */
+    static int all(long table, int value, long[] out) {
+        long same = table & Cards.ofValue(value);
+        int count = 0;
+        if (same != 0) {
+            for (long rest = same; rest != 0; rest &= rest - 1) {
+                out[count++] = Long.lowestOneBit(rest);
+            }
+            return count;
+        }
+        for (int counts : PARTITIONS[value]) {
+            if (available(table, counts)) {
+                count = expand(table, counts, 1, 0L, out, count);
+            }
+        }
+        return count;
+    }
+
+    // Picks the cards of each part value in turn, every combination of suits
+    private static int expand(long table, int counts, int part, long taken, long[] out, int count) {
+        while (part <= VALUES && (counts >>> (part - 1) * 3 & 7) == 0) {
+            part++;
+        }
+        if (part > VALUES) {
+            out[count++] = taken;
+            return count;
+        }
+        int need = counts >>> (part - 1) * 3 & 7;
+        long cards = table & Cards.ofValue(part);
+        // Subsets of the four cards of this value with exactly need cards
+        for (long subset = cards; subset != 0; subset = (subset - 1) & cards) {
+            if (Long.bitCount(subset) == need) {
+                count = expand(table, counts, part + 1, taken | subset, out, count);
+            }
+        }
+        return count;
+    }
+
+    private static boolean available(long table, int counts) {
+        for (int part = 1; counts != 0; part++, counts >>>= 3) {
+            if ((counts & 7) > Long.bitCount(table & Cards.ofValue(part))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Whether a card of the value may take those cards from the table; taking nothing is legal only
+    // when the card can take nothing
+    static boolean isLegal(long table, int value, long capture) {
+        if ((capture & ~table) != 0) {
+            return false;
+        }
+        long same = table & Cards.ofValue(value);
+        if (same != 0) {
+            return Long.bitCount(capture) == 1 && (capture & same) != 0;
+        }
+        if (capture == 0) {
+            return best(table, value) == 0;
+        }
+        return Long.bitCount(capture) >= 2 && Cards.sum(capture) == value;
+    }
+
+    /**
+     * The capture a card of the value should make on the table, by {@link #worth}, or 0 if it takes
+     * nothing. Among cards of one value Coins are always worth most, so each partition only needs
+     * its lowest cards of every part value.
+     */
+    static long best(long table, int value) {
+        long same = table & Cards.ofValue(value);
+        if (same != 0) {
+            long seven = same & Cards.SEVEN_OF_COINS;
+            return seven != 0 ? seven : Long.lowestOneBit(same);
+        }
+        long best = 0;
+        int bestWorth = Integer.MIN_VALUE;
+        for (int counts : PARTITIONS[value]) {
+            if (!available(table, counts)) {
+                continue;
+            }
+            long taken = 0;
+            for (int part = 1, rest = counts; rest != 0; part++, rest >>>= 3) {
+                long cards = table & Cards.ofValue(part);
+                for (int i = rest & 7; i > 0; i--) {
+                    taken |= Long.lowestOneBit(cards);
+                    cards &= cards - 1;
+                }
+            }
+            int worth = worth(taken, taken == table);
+            if (worth > bestWorth) {
+                best = taken;
+                bestWorth = worth;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Rough value of taking cards towards the end-of-round points: a scopa for clearing the table,
+     * the seven of Coins, then Coins and cards for the two majorities. Sums are left out, as every
+     * capture by one card adds up to the same value.
+     */
+    static int worth(long cards, boolean sweep) {
+        return (sweep ? 100 : 0) + ((cards & Cards.SEVEN_OF_COINS) != 0 ? 30 : 0)
+                + 4 * Long.bitCount(cards & Cards.COINS) + 3 * Long.bitCount(cards);
+    }
+}
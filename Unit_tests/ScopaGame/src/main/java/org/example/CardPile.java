@@ -0,0 +1,222 @@
+package org.example;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.SplittableRandom;
+
+/**
+ * A deck, hand, table or discard pile: card ids in play order behind the {@link List} view the
+ * game and its tests use, plus the mask of the cards it holds, kept up to date by every change. Piles
+ * hold each card at most once in play; a card added twice stays in the mask until its last copy
+ * leaves, so list utilities that swap cards through a duplicate, like {@link java.util.Collections#shuffle},
+ * still leave the mask right.
+ */
+final class CardPile extends AbstractList<Card> implements RandomAccess {
+    private byte[] ids = new byte[Cards.COUNT];
+    private int size;
+    private long mask;
+    // Adds of a card already present, which removes have to look past
+    private int duplicates;
+
+    CardPile() {
+    }
+
+    CardPile(Collection<? extends Card> cards) {
+        addAll(cards);
+    }
+
+    // The 40 cards, in id order
+    static CardPile fullDeck() {
+        CardPile deck = new CardPile();
+        for (int id = 0; id < Cards.COUNT; id++) {
+            deck.addId(id);
+        }
+        return deck;
+    }
+
+    long mask() {
+        return mask;
+    }
+
+    // The cards of any list as a mask, without walking it when it is a pile
+    static long maskOf(List<Card> cards) {
+        if (cards instanceof CardPile) {
+            return ((CardPile) cards).mask;
+        }
+        long mask = 0;
+        for (Card card : cards) {
+            mask |= 1L << card.id();
+        }
+        return mask;
+    }
+
+    /**
+     * Removes the cards in the mask from any list, keeping the order of the rest, and returns them
+     * in their old order.
+     */
+    static List<Card> take(List<Card> from, long cards) {
+        if (from instanceof CardPile) {
+            return ((CardPile) from).take(cards);
+        }
+        List<Card> taken = new ArrayList<>();
+        from.removeIf(card -> (cards & 1L << card.id()) != 0 && taken.add(card));
+        return taken;
+    }
+
+    private CardPile take(long cards) {
+        CardPile taken = new CardPile();
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            if ((cards & 1L << ids[i]) != 0) {
+                taken.addId(ids[i]);
+            } else {
+                ids[kept++] = ids[i];
+            }
+        }
+        size = kept;
+        mask = 0;
+        duplicates = 0;
+        for (int i = 0; i < size; i++) {
+            addToMask(ids[i]);
+        }
+        modCount++;
+        return taken;
+    }
+
+    int idAt(int index) {
+        checkIndex(index, size);
+        return ids[index];
+    }
+
+    void addId(int id) {
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size * 2);
+        }
+        ids[size++] = (byte) id;
+        addToMask(id);
+        modCount++;
+    }
+
+    // Removes and returns the last card's id, e.g. the top of the deck
+    int removeLastId() {
+        checkIndex(size - 1, size);
+        int id = ids[--size];
+        removeFromMask(id);
+        modCount++;
+        return id;
+    }
+
+    void shuffle(SplittableRandom random) {
+        for (int i = size - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            byte id = ids[i];
+            ids[i] = ids[j];
+            ids[j] = id;
+        }
+        modCount++;
+    }
+
+    @Override
+    public Card get(int index) {
+        return Cards.card(idAt(index));
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void add(int index, Card card) {
+        checkIndex(index, size + 1);
+        int id = card.id();
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size * 2);
+        }
+        System.arraycopy(ids, index, ids, index + 1, size - index);
+        ids[index] = (byte) id;
+        size++;
+        addToMask(id);
+        modCount++;
+    }
+
+    @Override
+    public Card set(int index, Card card) {
+        int old = idAt(index);
+        int id = card.id();
+        ids[index] = (byte) id;
+        addToMask(id);
+        removeFromMask(old);
+        return Cards.card(old);
+    }
+
+    @Override
+    public Card remove(int index) {
+        int id = idAt(index);
+        System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+        size--;
+        removeFromMask(id);
+        modCount++;
+        return Cards.card(id);
+    }
+
+    @Override
+    public void clear() {
+        size = 0;
+        mask = 0;
+        duplicates = 0;
+        modCount++;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return o instanceof Card && isCard((Card) o) && (mask & 1L << ((Card) o).id()) != 0;
+    }
+
+    @Override
+    public int indexOf(Object o) {
+        if (!contains(o)) {
+            return -1;
+        }
+        int id = ((Card) o).id();
+        for (int i = 0; i < size; i++) {
+            if (ids[i] == id) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isCard(Card card) {
+        return card.value >= 1 && card.value <= Cards.VALUES && Cards.suitIndex(card.suit) >= 0;
+    }
+
+    private void addToMask(int id) {
+        if ((mask & 1L << id) != 0) {
+            duplicates++;
+        }
+        mask |= 1L << id;
+    }
+
+    private void removeFromMask(int id) {
+        if (duplicates > 0) {
+            for (int i = 0; i < size; i++) {
+                if (ids[i] == id) {
+                    duplicates--;
+                    return;
+                }
+            }
+        }
+        mask &= ~(1L << id);
+    }
+
+    private static void checkIndex(int index, int size) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package org.example;
+
+/**
+ * The 40 cards as ids 0..39, value-major with the four suits of a value adjacent and Coins first,
+ * so a set of cards is a long and the end-of-round tallies are popcounts of masks. {@link #card}
+ * returns one shared {@link Card} per id, which piles hand out instead of allocating.
+ */
+final class Cards {
+    static final int VALUES = 10;
+    static final int SUITS = 4;
+    static final int COUNT = VALUES * SUITS;
+    static final String[] SUIT_NAMES = {"Coins", "Cups", "Swords", "Clubs"};
+    static final long ALL = (1L << COUNT) - 1;
+    // The Coins card of every value
+    static final long COINS = 0x1111111111L;
+    static final long SEVEN_OF_COINS = 1L << id(0, 7);
+
+    private static final long[] OF_VALUE = new long[VALUES + 1];
+    private static final Card[] CARDS = new Card[COUNT];
+
+    static {
+        for (int value = 1; value <= VALUES; value++) {
+            OF_VALUE[value] = 0xFL << ((value - 1) * SUITS);
+        }
+        for (int id = 0; id < COUNT; id++) {
+            CARDS[id] = new Card(SUIT_NAMES[suit(id)], value(id));
+        }
+    }
+
+    private Cards() {
+    }
+
+    static int id(int suit, int value) {
+        return (value - 1) * SUITS + suit;
+    }
+
+    static int value(int id) {
+        return id / SUITS + 1;
+    }
+
+    static int suit(int id) {
+        return id % SUITS;
+    }
+
+    // -1 for anything but the four suits
+    static int suitIndex(String suit) {
+        for (int i = 0; i < SUITS; i++) {
+            if (SUIT_NAMES[i].equals(suit)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // The shared card of an id; do not modify it
+    static Card card(int id) {
+        return CARDS[id];
+    }
+
+    // The four cards of a value
+    static long ofValue(int value) {
+        return OF_VALUE[value];
+    }
+
+    static int count(long cards) {
+        return Long.bitCount(cards);
+    }
+
+    static int coins(long cards) {
+        return Long.bitCount(cards & COINS);
+    }
+
+    // Sum of the values of the cards, one popcount per value
+    static int sum(long cards) {
+        int sum = 0;
+        for (int value = 1; value <= VALUES; value++) {
+            sum += value * Long.bitCount(cards & OF_VALUE[value]);
+        }
+        return sum;
+    }
+}
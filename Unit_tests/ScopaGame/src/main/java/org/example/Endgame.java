@@ -0,0 +1,283 @@
+package org.example;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Exact play for the last deal of a round, once the deck is empty. The cards this player has not seen
+ * are then in the other two hands, and only how they are split between them is unknown: every split
+ * is solved with all hands open, by alpha-beta over the rest of the round, and the move with the best
+ * total over the splits is played. Opponents are assumed to play against this player (paranoid), so
+ * a position is worth this player's round points less the best of the other two, with the final
+ * table going to the last to draw. Before the last deal the fallback strategy plays.
+ *
+ * <p>Positions are cached in a transposition table keyed by a Zobrist hash of the whole state: the
+ * cards of every hand, pile and the table, the scopas, who took and who drew last, the seat to move
+ * and the seat after it (which fixes the turn order of three), and whose points are being counted. So
+ * the table is kept between moves and games.
+ */
+final class Endgame implements Strategy {
+    private static final int TABLE_BITS = 16;
+    private static final int TABLE_MASK = (1 << TABLE_BITS) - 1;
+    private static final byte EXACT = 1;
+    private static final byte LOWER = 2;
+    private static final byte UPPER = 3;
+    // A round has ten plies at most once the deck is empty, plus the end of it
+    private static final int MAX_DEPTH = ScopaState.SEATS * Game.HAND_SIZE + 1;
+
+    private static final long[][] HAND = new long[ScopaState.SEATS][Cards.COUNT];
+    private static final long[][] PILE = new long[ScopaState.SEATS][Cards.COUNT];
+    private static final long[] TABLE = new long[Cards.COUNT];
+    private static final long[][] SCOPAS = new long[ScopaState.SEATS][Cards.COUNT + 2];
+    // Indexed by seat + 1, for no one
+    private static final long[] CAPTURER = new long[ScopaState.SEATS + 1];
+    private static final long[] DRAWER = new long[ScopaState.SEATS + 1];
+    private static final long[] TURN = new long[ScopaState.SEATS];
+    private static final long[] NEXT = new long[ScopaState.SEATS];
+    private static final long[] VIEWER = new long[ScopaState.SEATS];
+
+    static {
+        SplittableRandom random = new SplittableRandom(40);
+        for (int s = 0; s < ScopaState.SEATS; s++) {
+            for (int id = 0; id < Cards.COUNT; id++) {
+                HAND[s][id] = random.nextLong();
+                PILE[s][id] = random.nextLong();
+            }
+            for (int n = 0; n < SCOPAS[s].length; n++) {
+                SCOPAS[s][n] = random.nextLong();
+            }
+            TURN[s] = random.nextLong();
+            NEXT[s] = random.nextLong();
+            VIEWER[s] = random.nextLong();
+        }
+        for (int id = 0; id < Cards.COUNT; id++) {
+            TABLE[id] = random.nextLong();
+        }
+        for (int s = 0; s <= ScopaState.SEATS; s++) {
+            CAPTURER[s] = random.nextLong();
+            DRAWER[s] = random.nextLong();
+        }
+    }
+
+    private final Strategy fallback;
+    private final long[] keys = new long[1 << TABLE_BITS];
+    private final long[] bestMoves = new long[1 << TABLE_BITS];
+    private final int[] values = new int[1 << TABLE_BITS];
+    private final byte[] bounds = new byte[1 << TABLE_BITS];
+    private final ScopaState[] stack = new ScopaState[MAX_DEPTH + 1];
+    private final long[][] moves = new long[MAX_DEPTH][ScopaState.SEATS * Captures.MAX_CAPTURES];
+    private final long[][] ranks = new long[MAX_DEPTH][ScopaState.SEATS * Captures.MAX_CAPTURES];
+    private final long[] legal = new long[ScopaState.SEATS * Captures.MAX_CAPTURES];
+    private final long[] scratch = new long[Captures.MAX_CAPTURES];
+    private final ScopaState split = new ScopaState();
+    private final ScopaState after = new ScopaState();
+    private final int[] points = new int[ScopaState.SEATS];
+    private int viewer;
+    // Positions searched by the last move, across all splits
+    long lastNodes;
+
+    Endgame(Strategy fallback) {
+        this.fallback = fallback;
+        for (int i = 0; i < stack.length; i++) {
+            stack[i] = new ScopaState();
+        }
+    }
+
+    @Override
+    public long choose(Game game, Player player) {
+        ScopaState root = ScopaState.observe(game, player);
+        if (root == null || !root.lastDeal()) {
+            return fallback.choose(game, player);
+        }
+        lastNodes = 0;
+        int seat = root.toMove();
+        int count = root.moves(legal, scratch);
+        if (count == 1) {
+            return handMove(player, legal[0]);
+        }
+        int first = (seat + 1) % ScopaState.SEATS;
+        int second = (seat + 2) % ScopaState.SEATS;
+        long unseen = root.deck;
+        int size = Long.bitCount(unseen);
+        long[] totals = new long[count];
+        // Every way to deal the unseen cards to the first of the other two, the rest to the second
+        for (int pick = 0; pick < 1 << size; pick++) {
+            if (Integer.bitCount(pick) != root.hidden[first]) {
+                continue;
+            }
+            split.copyFrom(root);
+            split.hands[first] = spread(pick, unseen);
+            split.hands[second] = unseen & ~split.hands[first];
+            split.hidden[first] = 0;
+            split.hidden[second] = 0;
+            split.deck = 0;
+            for (int i = 0; i < count; i++) {
+                after.copyFrom(split);
+                after.play(legal[i]);
+                totals[i] += solve(after, seat);
+            }
+        }
+        int best = 0;
+        for (int i = 1; i < count; i++) {
+            if (totals[i] > totals[best]) {
+                best = i;
+            }
+        }
+        return handMove(player, legal[best]);
+    }
+
+    // The bits of cards picked by the low bits of pick, in order
+    private static long spread(int pick, long cards) {
+        long picked = 0;
+        for (long rest = cards; rest != 0; rest &= rest - 1, pick >>>= 1) {
+            if ((pick & 1) != 0) {
+                picked |= Long.lowestOneBit(rest);
+            }
+        }
+        return picked;
+    }
+
+    private static long handMove(Player player, long move) {
+        for (int i = 0; i < player.hand.size(); i++) {
+            if (player.hand.get(i).id() == ScopaState.card(move)) {
+                return Strategy.move(i, ScopaState.capture(move));
+            }
+        }
+        throw new IllegalStateException("Solver chose a card not in hand");
+    }
+
+    /**
+     * The viewer's round points less the best of the other two when everyone plays on perfectly from
+     * a state with every hand known and the deck empty.
+     */
+    int solve(ScopaState state, int viewer) {
+        if (state.deck != 0 || state.hidden[0] + state.hidden[1] + state.hidden[2] != 0) {
+            throw new IllegalArgumentException("Only the last deal with every hand known can be solved");
+        }
+        this.viewer = viewer;
+        stack[0].copyFrom(state);
+        return search(0, hash(state) ^ VIEWER[viewer], Integer.MIN_VALUE, Integer.MAX_VALUE);
+    }
+
+    // Fail-soft alpha-beta; key covers the state but not whose turn it is and who follows
+    private int search(int depth, long key, int alpha, int beta) {
+        lastNodes++;
+        ScopaState state = stack[depth];
+        // The deck is empty, so nothing is drawn
+        if (!state.prepare(null)) {
+            state.finish();
+            state.points(points);
+            return score(points, viewer);
+        }
+        int seat = state.toMove();
+        long node = key ^ TURN[seat] ^ NEXT[state.order[(state.turn + 1) % ScopaState.SEATS]];
+        int slot = (int) node & TABLE_MASK;
+        long hint = -1;
+        if (keys[slot] == node) {
+            int value = values[slot];
+            byte bound = bounds[slot];
+            if (bound == EXACT || bound == LOWER && value >= beta || bound == UPPER && value <= alpha) {
+                return value;
+            }
+            hint = bestMoves[slot];
+        }
+
+        long[] candidates = moves[depth];
+        long[] rank = ranks[depth];
+        int count = state.moves(candidates, scratch);
+        // Most promising last, as promise << 32 | index, so cutoffs come early
+        for (int i = 0; i < count; i++) {
+            int promise = candidates[i] == hint ? Integer.MAX_VALUE : promise(state.table, candidates[i]);
+            rank[i] = (long) promise << 32 | i;
+        }
+        Arrays.sort(rank, 0, count);
+        boolean maximizing = seat == viewer;
+        int best = maximizing ? Integer.MIN_VALUE : Integer.MAX_VALUE;
+        long bestMove = -1;
+        int low = alpha;
+        int high = beta;
+        ScopaState child = stack[depth + 1];
+        for (int n = count - 1; n >= 0 && low < high; n--) {
+            long move = candidates[(int) rank[n]];
+            child.copyFrom(state);
+            child.play(move);
+            int value = search(depth + 1, key ^ change(state, move), low, high);
+            if (maximizing ? value > best : value < best) {
+                best = value;
+                bestMove = move;
+            }
+            if (maximizing) {
+                low = Math.max(low, value);
+            } else {
+                high = Math.min(high, value);
+            }
+        }
+
+        keys[slot] = node;
+        values[slot] = best;
+        bestMoves[slot] = bestMove;
+        bounds[slot] = best <= alpha ? UPPER : best >= beta ? LOWER : EXACT;
+        return best;
+    }
+
+    // Captures by what they take, with sweeps first; other moves by how little the card is worth keeping
+    private static int promise(long table, long move) {
+        int id = ScopaState.card(move);
+        long capture = ScopaState.capture(move);
+        return capture != 0 ? Captures.worth(capture | 1L << id, capture == table) : -Strategy.keep(id);
+    }
+
+    private static int score(int[] points, int seat) {
+        int others = Integer.MIN_VALUE;
+        for (int s = 0; s < points.length; s++) {
+            if (s != seat) {
+                others = Math.max(others, points[s]);
+            }
+        }
+        return points[seat] - others;
+    }
+
+    // Zobrist key of the state, without whose turn it is and who follows
+    static long hash(ScopaState state) {
+        long key = 0;
+        for (int s = 0; s < ScopaState.SEATS; s++) {
+            for (long rest = state.hands[s]; rest != 0; rest &= rest - 1) {
+                key ^= HAND[s][Long.numberOfTrailingZeros(rest)];
+            }
+            for (long rest = state.piles[s]; rest != 0; rest &= rest - 1) {
+                key ^= PILE[s][Long.numberOfTrailingZeros(rest)];
+            }
+            key ^= SCOPAS[s][state.scopas[s]];
+        }
+        for (long rest = state.table; rest != 0; rest &= rest - 1) {
+            key ^= TABLE[Long.numberOfTrailingZeros(rest)];
+        }
+        return key ^ CAPTURER[state.lastCapturer + 1] ^ DRAWER[state.lastDrawer + 1];
+    }
+
+    // What playing the move does to the key, as ScopaState.play does it to the state
+    static long change(ScopaState state, long move) {
+        int seat = state.toMove();
+        int id = ScopaState.card(move);
+        long capture = ScopaState.capture(move);
+        long change = HAND[seat][id];
+        if (capture == 0) {
+            return change ^ TABLE[id];
+        }
+        change ^= PILE[seat][id];
+        for (long rest = capture; rest != 0; rest &= rest - 1) {
+            int taken = Long.numberOfTrailingZeros(rest);
+            change ^= TABLE[taken] ^ PILE[seat][taken];
+        }
+        change ^= CAPTURER[state.lastCapturer + 1] ^ CAPTURER[seat + 1];
+        if (capture == state.table) {
+            change ^= SCOPAS[seat][state.scopas[seat]] ^ SCOPAS[seat][state.scopas[seat] + 1];
+        }
+        return change;
+    }
+
+    @Override
+    public String toString() {
+        return "endgame";
+    }
+}
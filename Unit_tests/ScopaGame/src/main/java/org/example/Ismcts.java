@@ -0,0 +1,257 @@
+package org.example;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Information-set Monte Carlo tree search over the rest of the round (single observer). Every
+ * iteration deals the other players' hands at random from the cards this player has not seen, walks
+ * a tree of the moves of all three seats by UCB over the moves that deal allows, and plays the round
+ * out with a mostly greedy rollout. A node's reward is its seat's round points against the best of
+ * the other two, scaled to [0, 1]. Each worker of the fork/join pool grows its own tree until the
+ * time budget or iteration cap runs out, and the card played most often across all trees is chosen.
+ * The last deal of a round is left to the exact {@link Endgame} solver.
+ */
+final class Ismcts implements Strategy {
+    static final long DEFAULT_BUDGET = TimeUnit.MILLISECONDS.toNanos(50);
+    private static final double EXPLORATION = 0.7;
+    // Share of rollout moves played at random rather than greedily
+    private static final double EPSILON = 0.1;
+    // Round point difference that counts as a sure win or loss
+    private static final double SPREAD = 5;
+
+    private final long budgetNanos;
+    private final int iterations;
+    private final ForkJoinPool pool;
+    private final int workers;
+    private final Endgame endgame = new Endgame(GREEDY);
+    // Iterations of the last search, across all workers
+    long lastIterations;
+
+    Ismcts() {
+        this(DEFAULT_BUDGET, Integer.MAX_VALUE, ForkJoinPool.commonPool(), ForkJoinPool.commonPool().getParallelism());
+    }
+
+    // Each worker stops at the budget or after the given number of iterations, whichever comes first
+    Ismcts(long budgetNanos, int iterations, ForkJoinPool pool, int workers) {
+        this.budgetNanos = budgetNanos;
+        this.iterations = iterations;
+        this.pool = pool;
+        this.workers = Math.max(1, workers);
+    }
+
+    private static final class Node {
+        static final Node[] NONE = new Node[0];
+
+        final long move;
+        // Seat that played move, whose reward the node collects
+        final int seat;
+        final Node parent;
+        Node[] children = NONE;
+        int childCount;
+        int visits;
+        int availability = 1;
+        double reward;
+
+        Node(long move, int seat, Node parent) {
+            this.move = move;
+            this.seat = seat;
+            this.parent = parent;
+        }
+
+        Node child(long move) {
+            for (int i = 0; i < childCount; i++) {
+                if (children[i].move == move) {
+                    return children[i];
+                }
+            }
+            return null;
+        }
+
+        Node add(long move, int seat) {
+            if (childCount == children.length) {
+                children = Arrays.copyOf(children, Math.max(4, childCount * 2));
+            }
+            Node child = new Node(move, seat, this);
+            children[childCount++] = child;
+            return child;
+        }
+    }
+
+    @Override
+    public long choose(Game game, Player player) {
+        lastIterations = 0;
+        ScopaState root = ScopaState.observe(game, player);
+        if (root == null) {
+            return GREEDY.choose(game, player);
+        }
+        if (root.lastDeal()) {
+            return endgame.choose(game, player);
+        }
+        long[] legal = new long[ScopaState.SEATS * Captures.MAX_CAPTURES];
+        if (root.moves(legal, new long[Captures.MAX_CAPTURES]) == 1) {
+            return handMove(player, legal[0]);
+        }
+        long deadline = System.nanoTime() + budgetNanos;
+        SplittableRandom seeds = new SplittableRandom(game.random.nextLong());
+        List<Search> searches = new ArrayList<>();
+        for (int i = 0; i < workers; i++) {
+            searches.add(new Search(root, seeds.split(), deadline));
+        }
+        pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(searches)));
+
+        // Visits of each move summed over the workers' trees
+        long best = -1;
+        long bestVisits = -1;
+        List<Long> moves = new ArrayList<>();
+        List<Long> visits = new ArrayList<>();
+        for (Search search : searches) {
+            lastIterations += search.iterations;
+            for (int i = 0; i < search.tree.childCount; i++) {
+                Node child = search.tree.children[i];
+                int at = moves.indexOf(child.move);
+                if (at < 0) {
+                    moves.add(child.move);
+                    visits.add((long) child.visits);
+                } else {
+                    visits.set(at, visits.get(at) + child.visits);
+                }
+            }
+        }
+        for (int i = 0; i < moves.size(); i++) {
+            if (visits.get(i) > bestVisits) {
+                best = moves.get(i);
+                bestVisits = visits.get(i);
+            }
+        }
+        return handMove(player, best);
+    }
+
+    private static long handMove(Player player, long move) {
+        for (int i = 0; i < player.hand.size(); i++) {
+            if (player.hand.get(i).id() == ScopaState.card(move)) {
+                return Strategy.move(i, ScopaState.capture(move));
+            }
+        }
+        throw new IllegalStateException("Search chose a card not in hand");
+    }
+
+    private final class Search extends RecursiveTask<Void> {
+        private static final long serialVersionUID = 1L;
+
+        private final ScopaState root;
+        private final SplittableRandom random;
+        private final long deadline;
+        final Node tree = new Node(-1, -1, null);
+        int iterations;
+
+        Search(ScopaState root, SplittableRandom random, long deadline) {
+            this.root = root;
+            this.random = random;
+            this.deadline = deadline;
+        }
+
+        @Override
+        protected Void compute() {
+            ScopaState state = new ScopaState();
+            long[] moves = new long[ScopaState.SEATS * Captures.MAX_CAPTURES];
+            long[] scratch = new long[Captures.MAX_CAPTURES];
+            int[] points = new int[ScopaState.SEATS];
+            while (iterations < Ismcts.this.iterations && deadline - System.nanoTime() > 0) {
+                state.copyFrom(root);
+                state.determinize(random);
+                Node node = select(state, moves, scratch);
+                while (state.prepare(random)) {
+                    state.play(rollout(state, moves, scratch));
+                }
+                state.finish();
+                state.points(points);
+                for (; node.parent != null; node = node.parent) {
+                    node.visits++;
+                    node.reward += reward(points, node.seat);
+                }
+                iterations++;
+            }
+            return null;
+        }
+
+        // Walks down by UCB among the moves this deal allows, expanding the first move not tried yet
+        private Node select(ScopaState state, long[] moves, long[] scratch) {
+            Node node = tree;
+            while (state.prepare(random)) {
+                int seat = state.toMove();
+                int count = state.moves(moves, scratch);
+                int start = random.nextInt(count);
+                long untried = -1;
+                Node chosen = null;
+                double bestScore = Double.NEGATIVE_INFINITY;
+                for (int k = 0; k < count; k++) {
+                    long move = moves[(start + k) % count];
+                    Node child = node.child(move);
+                    if (child == null) {
+                        if (untried < 0) {
+                            untried = move;
+                        }
+                        continue;
+                    }
+                    child.availability++;
+                    double score = child.reward / child.visits
+                            + EXPLORATION * Math.sqrt(Math.log(child.availability) / child.visits);
+                    if (score > bestScore) {
+                        chosen = child;
+                        bestScore = score;
+                    }
+                }
+                if (untried >= 0) {
+                    state.play(untried);
+                    return node.add(untried, seat);
+                }
+                state.play(chosen.move);
+                node = chosen;
+            }
+            return node;
+        }
+
+        // Mostly the greedy capture; sometimes any move
+        private long rollout(ScopaState state, long[] moves, long[] scratch) {
+            if (random.nextDouble() < EPSILON) {
+                int count = state.moves(moves, scratch);
+                return moves[random.nextInt(count)];
+            }
+            long hand = state.hands[state.toMove()];
+            long best = 0;
+            int bestWorth = Integer.MIN_VALUE;
+            for (long rest = hand; rest != 0; rest &= rest - 1) {
+                int id = Long.numberOfTrailingZeros(rest);
+                long taken = Captures.best(state.table, Cards.value(id));
+                int worth = taken != 0 ? Captures.worth(taken | 1L << id, taken == state.table) : -Strategy.keep(id);
+                if (worth > bestWorth) {
+                    best = ScopaState.move(id, taken);
+                    bestWorth = worth;
+                }
+            }
+            return best;
+        }
+    }
+
+    private static double reward(int[] points, int seat) {
+        int others = Integer.MIN_VALUE;
+        for (int s = 0; s < points.length; s++) {
+            if (s != seat) {
+                others = Math.max(others, points[s]);
+            }
+        }
+        return Math.max(0, Math.min(1, 0.5 + (points[seat] - others) / (2 * SPREAD)));
+    }
+
+    @Override
+    public String toString() {
+        return "ismcts";
+    }
+}
@@ -23,3 +23,310 @@ import java.util.stream.*;
 import java.util.*;
 import java.util.stream.Collectors;
 
+
+class Card {
+    String suit;
+    int value;
+
+    Card(String suit, int value) {
+        this.suit = suit;
+        this.value = value;
+    }
+
+    int getValue() {
+        return value;
+    }
+
+    String getSuit() {
+        return suit;
+    }
+
+    // Bit of this card in a Cards mask
+    int id() {
+        int suitIndex = Cards.suitIndex(suit);
+        if (suitIndex < 0 || value < 1 || value > Cards.VALUES) {
+            throw new IllegalArgumentException("Not a Scopa card: " + this);
+        }
+        return Cards.id(suitIndex, value);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Card)) return false;
+        Card card = (Card) o;
+        return value == card.value && suit.equals(card.suit);
+    }
+
+    @Override
+    public int hashCode() {
+        return suit.hashCode() * 31 + value;
+    }
+
+    @Override
+    public String toString() {
+        return value + " of " + suit;
+    }
+}
+
+class Player {
+    String name;
+    int score;
+    int specialPoints;
+    List<Card> hand;
+    List<Card> discardPile;
+    // Chooses this player's moves; greedy when unset
+    Strategy strategy;
+    // Scopas over the whole game; specialPoints only holds those of the current round
+    int scopas;
+
+    Player(String name) {
+        this.name = name;
+        this.score = 0;
+        this.specialPoints = 0;
+        this.hand = new CardPile();
+        this.discardPile = new CardPile();
+    }
+
+    Card playCard(int cardIndex) {
+        return hand.remove(cardIndex);
+    }
+
+    void addToDiscardPile(List<Card> capturedCards) {
+        discardPile.addAll(capturedCards);
+    }
+
+    void clearTableCapture() {
+        specialPoints++;
+        scopas++;
+    }
+}
+
+class Game {
+    static final int WINNING_SCORE = 8;
+    static final int HAND_SIZE = 3;
+    static final int TABLE_SIZE = 4;
+
+    List<Player> players;
+    List<Card> deck;
+    List<Card> tableCards;
+    List<Integer> turnOrder;
+    boolean roundOver;
+    boolean gameOver;
+    int roundCount;
+    // The player who captured last, kept for the search strategies
+    Player lastCapturer;
+    // Requirement 14 - the player who last had drawn cards takes the cards left on the table
+    Player lastDrawer;
+    // One generator per game; split() it to seed games running in parallel
+    final SplittableRandom random;
+
+    Game() {
+        this(new SplittableRandom());
+    }
+
+    Game(SplittableRandom random) {
+        this.random = random;
+        this.players = new ArrayList<>();
+        this.deck = new CardPile();
+        this.tableCards = new CardPile();
+        this.turnOrder = new ArrayList<>();
+        this.roundOver = false;
+        this.gameOver = false;
+        this.roundCount = 0;
+    }
+
+    void initializeGame() {
+        players = new ArrayList<>(Arrays.asList(new Player("Alice"), new Player("Bob"), new Player("Charlie")));
+        turnOrder = new ArrayList<>(Arrays.asList(0, 1, 2));
+        shuffle(turnOrder, random);
+        gameOver = false;
+        roundCount = 0;
+        startRound();
+    }
+
+    // Collections.shuffle only takes a java.util.Random
+    static void shuffle(List<Integer> list, SplittableRandom random) {
+        for (int i = list.size() - 1; i > 0; i--) {
+            Collections.swap(list, i, random.nextInt(i + 1));
+        }
+    }
+
+    // Shuffles a full deck, deals three cards to every player and four to the table
+    void startRound() {
+        CardPile fresh = CardPile.fullDeck();
+        fresh.shuffle(random);
+        deck = fresh;
+        tableCards = new CardPile();
+        lastCapturer = null;
+        lastDrawer = null;
+        for (Player player : players) {
+            player.hand.clear();
+            player.discardPile.clear();
+            deal(player);
+        }
+        for (int i = 0; i < TABLE_SIZE && !deck.isEmpty(); i++) {
+            tableCards.add(deck.remove(deck.size() - 1));
+        }
+        roundOver = false;
+        roundCount++;
+    }
+
+    void deal(Player player) {
+        for (int i = 0; i < HAND_SIZE && !deck.isEmpty(); i++) {
+            player.hand.add(deck.remove(deck.size() - 1));
+        }
+        lastDrawer = player;
+    }
+
+    long tableMask() {
+        return CardPile.maskOf(tableCards);
+    }
+
+    void playTurn(Player player) {
+        if (player.hand.isEmpty() && !deck.isEmpty()) {
+            deal(player);
+        }
+        if (player.hand.isEmpty()) {
+            roundOver = deck.isEmpty();
+            return;
+        }
+
+        Strategy strategy = player.strategy != null ? player.strategy : Strategy.GREEDY;
+        long move = strategy.choose(this, player);
+        int chosen = Strategy.handIndex(move);
+        long capture = Strategy.capture(move);
+        if (chosen >= player.hand.size() || !Captures.isLegal(tableMask(), player.hand.get(chosen).value, capture)) {
+            throw new IllegalStateException(strategy + " chose an illegal move for " + player.name);
+        }
+
+        Card played = player.playCard(chosen);
+        if (capture == 0) {
+            tableCards.add(played);
+        } else {
+            List<Card> captured = CardPile.take(tableCards, capture);
+            captured.add(played);
+            player.addToDiscardPile(captured);
+            lastCapturer = player;
+            if (tableCards.isEmpty()) {
+                player.clearTableCapture();
+            }
+        }
+        roundOver = deck.isEmpty() && players.stream().allMatch(p -> p.hand.isEmpty());
+    }
+
+    // Plays turns in turn order until the round is over and scores it, then deals the next round
+    // unless someone has won
+    void playRound() {
+        while (!roundOver) {
+            for (int i : turnOrder) {
+                playTurn(players.get(i));
+                if (roundOver) {
+                    break;
+                }
+            }
+        }
+        handleRoundEnd();
+        calculateFinalScores();
+        if (!gameOver) {
+            startRound();
+        }
+    }
+
+    void handleRoundEnd() {
+        Player taker = lastDrawer;
+        if (taker == null && !players.isEmpty()) {
+            taker = players.get(turnOrder.isEmpty() ? 0 : turnOrder.get(turnOrder.size() - 1));
+        }
+        if (taker != null) {
+            taker.addToDiscardPile(tableCards);
+        }
+        tableCards = new CardPile();
+        roundOver = true;
+    }
+
+    // A point each for the only player with the most cards, the most Coins, the seven of Coins and the
+    // highest sum; ties score nothing. Scopas count a point each.
+    void calculateFinalScores() {
+        int n = players.size();
+        int[] cards = new int[n];
+        int[] coins = new int[n];
+        int[] sums = new int[n];
+        for (int i = 0; i < n; i++) {
+            Player player = players.get(i);
+            long pile = CardPile.maskOf(player.discardPile);
+            cards[i] = Cards.count(pile);
+            coins[i] = Cards.coins(pile);
+            sums[i] = Cards.sum(pile);
+            if ((pile & Cards.SEVEN_OF_COINS) != 0) {
+                player.score++;
+            }
+            player.score += player.specialPoints;
+            player.specialPoints = 0;
+        }
+        awardMost(cards);
+        awardMost(coins);
+        awardMost(sums);
+
+        for (Player player : players) {
+            if (player.score >= WINNING_SCORE) {
+                gameOver = true;
+            }
+        }
+    }
+
+    private void awardMost(int[] counts) {
+        int leader = -1;
+        boolean tied = false;
+        for (int i = 0; i < counts.length; i++) {
+            if (leader < 0 || counts[i] > counts[leader]) {
+                leader = i;
+                tied = false;
+            } else if (counts[i] == counts[leader]) {
+                tied = true;
+            }
+        }
+        if (leader >= 0 && !tied && counts[leader] > 0) {
+            players.get(leader).score++;
+        }
+    }
+
+    // The player with the highest score, or null on a tie for it
+    Player winner() {
+        Player winner = null;
+        boolean tied = false;
+        for (Player player : players) {
+            if (winner == null || player.score > winner.score) {
+                winner = player;
+                tied = false;
+            } else if (player.score == winner.score) {
+                tied = true;
+            }
+        }
+        return tied ? null : winner;
+    }
+
+    void declareWinner() {
+        Player winner = winner();
+        if (winner != null) {
+            System.out.println("The winner is " + winner.name + " with " + winner.score + " points!");
+        } else if (!players.isEmpty()) {
+            System.out.println("The game ends in a tie.");
+        }
+    }
+}
+
+public class ScopaGame {
+    public static void main(String[] args) {
+        Game game = new Game();
+        game.initializeGame();
+        while (!game.gameOver) {
+            System.out.println("Round " + game.roundCount + ":");
+            game.playRound();
+            for (Player player : game.players) {
+                System.out.println("  " + player.name + ": " + player.score);
+            }
+        }
+        game.declareWinner();
+    }
+}
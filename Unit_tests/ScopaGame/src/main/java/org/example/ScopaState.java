@@ -0,0 +1,225 @@
+package org.example;
+
+import java.util.SplittableRandom;
+
+/**
+ * The rest of a round as {@link Cards} masks, for search: the hands and discard piles of the three
+ * seats, the table and the undealt deck, whose turn it is, and who takes the table at the end. Plays
+ * by the same rules as {@link Game#playTurn} and scores by those of {@link Game#calculateFinalScores},
+ * without touching the game. Moves pack a card id and the cards it takes, see {@link #move}.
+ *
+ * <p>A state seen by one player, from {@link #observe}, does not know the other hands: their cards
+ * are still in the deck, with {@link #determinize} dealing each the number of cards it holds. Once
+ * the deck is empty only the split of the unseen cards between the other two hands is unknown.
+ */
+final class ScopaState {
+    static final int SEATS = 3;
+
+    final long[] hands = new long[SEATS];
+    final long[] piles = new long[SEATS];
+    // Scopas this round
+    final int[] scopas = new int[SEATS];
+    // Cards each hand holds that are still in the deck, until determinized
+    final int[] hidden = new int[SEATS];
+    // Seats in turn order and the position of the seat to move
+    final int[] order = new int[SEATS];
+    int turn;
+    long table;
+    long deck;
+    int lastCapturer = -1;
+    int lastDrawer = -1;
+
+    static long move(int id, long capture) {
+        return (long) id << Cards.COUNT | capture;
+    }
+
+    static int card(long move) {
+        return (int) (move >>> Cards.COUNT);
+    }
+
+    static long capture(long move) {
+        return move & Cards.ALL;
+    }
+
+    /**
+     * The round as the viewer sees it before their turn: their own hand, the table and every
+     * discard pile. Returns null unless the viewer is one of exactly three players.
+     */
+    static ScopaState observe(Game game, Player viewer) {
+        int seat = game.players.indexOf(viewer);
+        if (game.players.size() != SEATS || seat < 0 || game.turnOrder.size() != SEATS) {
+            return null;
+        }
+        ScopaState state = new ScopaState();
+        long seen = 0;
+        for (int s = 0; s < SEATS; s++) {
+            Player player = game.players.get(s);
+            state.order[s] = game.turnOrder.get(s);
+            if (state.order[s] == seat) {
+                state.turn = s;
+            }
+            state.piles[s] = CardPile.maskOf(player.discardPile);
+            state.scopas[s] = player.specialPoints;
+            seen |= state.piles[s];
+            if (s == seat) {
+                state.hands[s] = CardPile.maskOf(player.hand);
+                seen |= state.hands[s];
+            } else {
+                state.hidden[s] = player.hand.size();
+            }
+        }
+        state.table = CardPile.maskOf(game.tableCards);
+        state.deck = Cards.ALL & ~seen & ~state.table;
+        state.lastCapturer = game.players.indexOf(game.lastCapturer);
+        state.lastDrawer = game.players.indexOf(game.lastDrawer);
+        return state;
+    }
+
+    void copyFrom(ScopaState other) {
+        System.arraycopy(other.hands, 0, hands, 0, SEATS);
+        System.arraycopy(other.piles, 0, piles, 0, SEATS);
+        System.arraycopy(other.scopas, 0, scopas, 0, SEATS);
+        System.arraycopy(other.hidden, 0, hidden, 0, SEATS);
+        System.arraycopy(other.order, 0, order, 0, SEATS);
+        turn = other.turn;
+        table = other.table;
+        deck = other.deck;
+        lastCapturer = other.lastCapturer;
+        lastDrawer = other.lastDrawer;
+    }
+
+    // Deals the hidden hands from the deck at random
+    void determinize(SplittableRandom random) {
+        for (int s = 0; s < SEATS; s++) {
+            if (hidden[s] > 0) {
+                long drawn = draw(random, hidden[s]);
+                hands[s] |= drawn;
+                hidden[s] = 0;
+            }
+        }
+    }
+
+    // Removes count random cards from the deck and returns them
+    private long draw(SplittableRandom random, int count) {
+        long drawn = 0;
+        for (int i = 0; i < count && deck != 0; i++) {
+            long card = nthBit(deck, random.nextInt(Long.bitCount(deck)));
+            deck &= ~card;
+            drawn |= card;
+        }
+        return drawn;
+    }
+
+    private static long nthBit(long bits, int n) {
+        for (int i = 0; i < n; i++) {
+            bits &= bits - 1;
+        }
+        return Long.lowestOneBit(bits);
+    }
+
+    int toMove() {
+        return order[turn];
+    }
+
+    // Whether everything left is in the hands, the hidden ones being all the deck holds
+    boolean lastDeal() {
+        return Long.bitCount(deck) == hidden[0] + hidden[1] + hidden[2];
+    }
+
+    boolean isOver() {
+        return deck == 0 && (hands[0] | hands[1] | hands[2]) == 0;
+    }
+
+    /**
+     * Gets the seat to move ready to play: an empty hand draws three cards from the deck, as in
+     * {@link Game#playTurn}, and a seat with nothing left to play is passed over. Returns false once
+     * the round is over. Draws are random, so only a determinized state may draw.
+     */
+    boolean prepare(SplittableRandom random) {
+        while (!isOver()) {
+            int seat = toMove();
+            if (hands[seat] != 0) {
+                return true;
+            }
+            if (deck != 0) {
+                hands[seat] = draw(random, Game.HAND_SIZE);
+                lastDrawer = seat;
+                return true;
+            }
+            turn = (turn + 1) % SEATS;
+        }
+        return false;
+    }
+
+    // Every legal move of the seat to move, returning how many; out needs room for 3 x MAX_CAPTURES
+    int moves(long[] out, long[] scratch) {
+        int count = 0;
+        for (long rest = hands[toMove()]; rest != 0; rest &= rest - 1) {
+            int id = Long.numberOfTrailingZeros(rest);
+            int captures = Captures.all(table, Cards.value(id), scratch);
+            if (captures == 0) {
+                out[count++] = move(id, 0);
+            }
+            for (int c = 0; c < captures; c++) {
+                out[count++] = move(id, scratch[c]);
+            }
+        }
+        return count;
+    }
+
+    void play(long move) {
+        int seat = toMove();
+        long card = 1L << card(move);
+        long capture = capture(move);
+        hands[seat] &= ~card;
+        if (capture == 0) {
+            table |= card;
+        } else {
+            table &= ~capture;
+            piles[seat] |= capture | card;
+            lastCapturer = seat;
+            if (table == 0) {
+                scopas[seat]++;
+            }
+        }
+        turn = (turn + 1) % SEATS;
+    }
+
+    // Gives the table to whoever drew cards last, as Game.handleRoundEnd does
+    void finish() {
+        piles[lastDrawer >= 0 ? lastDrawer : order[SEATS - 1]] |= table;
+        table = 0;
+    }
+
+    // The points each seat scores for the round: scopas, the seven of Coins and the three majorities
+    void points(int[] out) {
+        int[] counts = new int[SEATS];
+        int[] coins = new int[SEATS];
+        int[] sums = new int[SEATS];
+        for (int s = 0; s < SEATS; s++) {
+            out[s] = scopas[s] + ((piles[s] & Cards.SEVEN_OF_COINS) != 0 ? 1 : 0);
+            counts[s] = Cards.count(piles[s]);
+            coins[s] = Cards.coins(piles[s]);
+            sums[s] = Cards.sum(piles[s]);
+        }
+        awardMost(counts, out);
+        awardMost(coins, out);
+        awardMost(sums, out);
+    }
+
+    private static void awardMost(int[] values, int[] out) {
+        int leader = 0;
+        boolean tied = false;
+        for (int s = 1; s < SEATS; s++) {
+            if (values[s] > values[leader]) {
+                leader = s;
+                tied = false;
+            } else if (values[s] == values[leader]) {
+                tied = true;
+            }
+        }
+        if (!tied && values[leader] > 0) {
+            out[leader]++;
+        }
+    }
+}
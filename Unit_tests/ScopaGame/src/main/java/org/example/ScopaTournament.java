@@ -0,0 +1,182 @@
+package org.example;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Plays headless three-player games to the winning score with a {@link Strategy} in every seat and
+ * reports per seat how often it won and how many scopas it made, plus how many rounds games took.
+ * Games run the real rules through {@link Game#playRound()}, with the turn order drawn per game as
+ * usual. They are split across a fork/join pool; every batch gets its own split of the seed
+ * generator, so a seed gives the same statistics on any number of cores.
+ *
+ * <pre>
+ * java org.example.ScopaTournament [games] [seed] [lineups, e.g. greedy,random,scopa/lookahead,greedy,greedy]
+ * </pre>
+ */
+public final class ScopaTournament {
+    // Games played sequentially by one fork/join task
+    private static final int BATCH = 256;
+    // Rounds beyond this are counted together
+    private static final int MAX_ROUNDS = 64;
+
+    private ScopaTournament() {
+    }
+
+    static final class Stats {
+        final String[] seats;
+        long games;
+        // Games without a single top score
+        long ties;
+        final long[] wins;
+        final long[] scopas;
+        // Games by number of rounds played
+        final long[] rounds = new long[MAX_ROUNDS + 1];
+
+        Stats(String[] seats) {
+            this.seats = seats;
+            this.wins = new long[seats.length];
+            this.scopas = new long[seats.length];
+        }
+
+        void merge(Stats other) {
+            games += other.games;
+            ties += other.ties;
+            for (int i = 0; i < seats.length; i++) {
+                wins[i] += other.wins[i];
+                scopas[i] += other.scopas[i];
+            }
+            for (int i = 0; i <= MAX_ROUNDS; i++) {
+                rounds[i] += other.rounds[i];
+            }
+        }
+
+        double winRate(int seat) {
+            return games == 0 ? 0 : (double) wins[seat] / games;
+        }
+
+        double scopasPerGame(int seat) {
+            return games == 0 ? 0 : (double) scopas[seat] / games;
+        }
+
+        double meanRounds() {
+            long sum = 0;
+            for (int i = 0; i <= MAX_ROUNDS; i++) {
+                sum += i * rounds[i];
+            }
+            return games == 0 ? 0 : (double) sum / games;
+        }
+
+        // Nearest-rank percentile of rounds per game, p in [0, 100]
+        int roundsPercentile(double p) {
+            long rank = Math.max(1, (long) Math.ceil(p / 100 * games));
+            long seen = 0;
+            for (int i = 0; i <= MAX_ROUNDS; i++) {
+                seen += rounds[i];
+                if (seen >= rank) {
+                    return i;
+                }
+            }
+            return 0;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder out = new StringBuilder();
+            for (int i = 0; i < seats.length; i++) {
+                out.append(String.format("  seat %d %-10s wins %5.1f%%, scopas %.2f per game%n", i + 1, seats[i],
+                        100 * winRate(i), scopasPerGame(i)));
+            }
+            return out.append(String.format("  ties %.1f%%, rounds mean %.2f, p50 %d, p90 %d, p99 %d, max %d",
+                    games == 0 ? 0 : 100.0 * ties / games, meanRounds(), roundsPercentile(50), roundsPercentile(90),
+                    roundsPercentile(99), roundsPercentile(100))).toString();
+        }
+    }
+
+    // Plays one game to the end, adding its outcome to stats
+    static void play(Strategy[] seats, SplittableRandom random, Stats stats) {
+        Game game = new Game(random);
+        game.initializeGame();
+        for (int i = 0; i < seats.length; i++) {
+            game.players.get(i).strategy = seats[i];
+        }
+        int rounds = 0;
+        while (!game.gameOver) {
+            game.playRound();
+            rounds++;
+        }
+        Player winner = game.winner();
+        for (int i = 0; i < seats.length; i++) {
+            Player player = game.players.get(i);
+            stats.scopas[i] += player.scopas;
+            if (player == winner) {
+                stats.wins[i]++;
+            }
+        }
+        if (winner == null) {
+            stats.ties++;
+        }
+        stats.rounds[Math.min(rounds, MAX_ROUNDS)]++;
+        stats.games++;
+    }
+
+    private static final class Batch extends RecursiveTask<Stats> {
+        private static final long serialVersionUID = 1L;
+
+        private final String[] lineup;
+        private final int games;
+        private final SplittableRandom random;
+
+        Batch(String[] lineup, int games, SplittableRandom random) {
+            this.lineup = lineup;
+            this.games = games;
+            this.random = random;
+        }
+
+        @Override
+        protected Stats compute() {
+            if (games > BATCH) {
+                int half = games / 2;
+                Batch left = new Batch(lineup, half, random.split());
+                Batch right = new Batch(lineup, games - half, random);
+                left.fork();
+                Stats stats = right.compute();
+                stats.merge(left.join());
+                return stats;
+            }
+            // Strategies keep scratch arrays, so each batch makes its own
+            Strategy[] seats = new Strategy[lineup.length];
+            for (int i = 0; i < lineup.length; i++) {
+                seats[i] = Strategy.named(lineup[i]);
+            }
+            Stats stats = new Stats(lineup);
+            for (int i = 0; i < games; i++) {
+                play(seats, random.split(), stats);
+            }
+            return stats;
+        }
+    }
+
+    static Stats run(String[] lineup, int games, SplittableRandom random, ForkJoinPool pool) {
+        if (lineup.length != 3) {
+            throw new IllegalArgumentException("Scopa is played by three players: " + String.join(",", lineup));
+        }
+        for (String name : lineup) {
+            Strategy.named(name);
+        }
+        return pool.invoke(new Batch(lineup, games, random));
+    }
+
+    public static void main(String[] args) {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 1;
+        String[] lineups = (args.length > 2 ? args[2] : "greedy,random,scopa/lookahead,greedy,scopa").split("/");
+        for (String lineup : lineups) {
+            long start = System.nanoTime();
+            Stats stats = run(lineup.split(","), games, new SplittableRandom(seed), ForkJoinPool.commonPool());
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("%s: %d games, %.0f games/s%n%s%n%n", lineup, games, games / seconds, stats);
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package org.example;
+
+/**
+ * Chooses a player's move in {@link Game#playTurn}: which card of the hand to play and which table
+ * cards it takes, packed by {@link #move}. Captures are mandatory, so a card that can take something
+ * must. Strategies may keep scratch state, so give every thread its own from {@link #named}.
+ */
+interface Strategy {
+
+    Strategy GREEDY = new Greedy();
+
+    long choose(Game game, Player player);
+
+    static long move(int handIndex, long capture) {
+        return (long) handIndex << Cards.COUNT | capture;
+    }
+
+    static int handIndex(long move) {
+        return (int) (move >>> Cards.COUNT);
+    }
+
+    static long capture(long move) {
+        return move & Cards.ALL;
+    }
+
+    static Strategy named(String name) {
+        switch (name) {
+            case "random":
+                return new RandomPlay();
+            case "greedy":
+                return new Greedy();
+            case "scopa":
+                return new ScopaSeeking();
+            case "lookahead":
+                return new Lookahead();
+            case "ismcts":
+                return new Ismcts();
+            case "endgame":
+                return new Endgame(new Greedy());
+            default:
+                throw new IllegalArgumentException("Unknown strategy: " + name);
+        }
+    }
+
+    // Every card value the next players may hold: not in this hand, on the table or in a discard pile
+    static long unseen(Game game, Player player) {
+        long seen = CardPile.maskOf(player.hand) | CardPile.maskOf(game.tableCards);
+        for (Player other : game.players) {
+            seen |= CardPile.maskOf(other.discardPile);
+        }
+        return Cards.ALL & ~seen;
+    }
+
+    // Worth given up by leaving a card on the table: Coins and the seven of Coins are worth keeping
+    static int keep(int id) {
+        return Captures.worth(1L << id, false) + Cards.value(id);
+    }
+
+    /** A random card and, if it can take several sets of cards, a random one of them. */
+    final class RandomPlay implements Strategy {
+        private final long[] captures = new long[Captures.MAX_CAPTURES];
+
+        @Override
+        public long choose(Game game, Player player) {
+            int index = game.random.nextInt(player.hand.size());
+            int count = Captures.all(game.tableMask(), player.hand.get(index).value, captures);
+            return move(index, count == 0 ? 0 : captures[game.random.nextInt(count)]);
+        }
+
+        @Override
+        public String toString() {
+            return "random";
+        }
+    }
+
+    /** The capture worth most right now; with none, the card least worth keeping. */
+    final class Greedy implements Strategy {
+
+        @Override
+        public long choose(Game game, Player player) {
+            long table = game.tableMask();
+            long best = 0;
+            int bestWorth = Integer.MIN_VALUE;
+            for (int i = 0; i < player.hand.size(); i++) {
+                int id = player.hand.get(i).id();
+                long taken = Captures.best(table, Cards.value(id));
+                int worth = taken != 0 ? Captures.worth(taken | 1L << id, taken == table) : -keep(id);
+                if (worth > bestWorth) {
+                    best = move(i, taken);
+                    bestWorth = worth;
+                }
+            }
+            return best;
+        }
+
+        @Override
+        public String toString() {
+            return "greedy";
+        }
+    }
+
+    /**
+     * Greedy, but weighs every capture a card can make and avoids leaving a table that adds up to 10
+     * or less, which the next player can sweep with a single card.
+     */
+    final class ScopaSeeking implements Strategy {
+        private static final int OPEN_TABLE = 60;
+        private final long[] captures = new long[Captures.MAX_CAPTURES];
+
+        @Override
+        public long choose(Game game, Player player) {
+            long table = game.tableMask();
+            long best = 0;
+            int bestWorth = Integer.MIN_VALUE;
+            for (int i = 0; i < player.hand.size(); i++) {
+                int id = player.hand.get(i).id();
+                int count = Captures.all(table, Cards.value(id), captures);
+                if (count == 0) {
+                    long rest = table | 1L << id;
+                    int worth = -keep(id) - (Cards.sum(rest) <= Cards.VALUES ? OPEN_TABLE : 0);
+                    if (worth > bestWorth) {
+                        best = move(i, 0);
+                        bestWorth = worth;
+                    }
+                }
+                for (int c = 0; c < count; c++) {
+                    long rest = table & ~captures[c];
+                    int worth = Captures.worth(captures[c] | 1L << id, rest == 0)
+                            - (rest != 0 && Cards.sum(rest) <= Cards.VALUES ? OPEN_TABLE : 0);
+                    if (worth > bestWorth) {
+                        best = move(i, captures[c]);
+                        bestWorth = worth;
+                    }
+                }
+            }
+            return best;
+        }
+
+        @Override
+        public String toString() {
+            return "scopa";
+        }
+    }
+
+    /**
+     * One ply ahead: every move is worth what it takes less the best capture any unseen card value
+     * could make on the table it leaves, as if the next player held that card.
+     */
+    final class Lookahead implements Strategy {
+        private final long[] captures = new long[Captures.MAX_CAPTURES];
+
+        @Override
+        public long choose(Game game, Player player) {
+            long table = game.tableMask();
+            long unseen = unseen(game, player);
+            long best = 0;
+            int bestWorth = Integer.MIN_VALUE;
+            for (int i = 0; i < player.hand.size(); i++) {
+                int id = player.hand.get(i).id();
+                int count = Captures.all(table, Cards.value(id), captures);
+                if (count == 0) {
+                    int worth = -keep(id) - reply(table | 1L << id, unseen);
+                    if (worth > bestWorth) {
+                        best = move(i, 0);
+                        bestWorth = worth;
+                    }
+                }
+                for (int c = 0; c < count; c++) {
+                    long rest = table & ~captures[c];
+                    int worth = Captures.worth(captures[c] | 1L << id, rest == 0) - reply(rest, unseen);
+                    if (worth > bestWorth) {
+                        best = move(i, captures[c]);
+                        bestWorth = worth;
+                    }
+                }
+            }
+            return best;
+        }
+
+        // The most a reply by an unseen card could take from the table
+        private static int reply(long table, long unseen) {
+            int most = 0;
+            for (int value = 1; value <= Cards.VALUES; value++) {
+                long cards = unseen & Cards.ofValue(value);
+                if (cards == 0) {
+                    continue;
+                }
+                long taken = Captures.best(table, value);
+                if (taken != 0) {
+                    most = Math.max(most, Captures.worth(taken | Long.lowestOneBit(cards), taken == table));
+                }
+            }
+            return most;
+        }
+
+        @Override
+        public String toString() {
+            return "lookahead";
+        }
+    }
+}
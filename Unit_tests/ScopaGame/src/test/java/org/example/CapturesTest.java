@@ -0,0 +1,113 @@
+package org.example;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import static org.junit.Assert.*;
+
+public class CapturesTest {
+
+    private static long mask(Card... cards) {
+        long mask = 0;
+        for (Card card : cards) {
+            mask |= 1L << card.id();
+        }
+        return mask;
+    }
+
+    // Every subset of the table that a card of the value may take, the slow way
+    private static Set<Long> bruteForce(long table, int value) {
+        int[] ids = new int[Long.bitCount(table)];
+        int n = 0;
+        for (long rest = table; rest != 0; rest &= rest - 1) {
+            ids[n++] = Long.numberOfTrailingZeros(rest);
+        }
+        Set<Long> singles = new HashSet<>();
+        Set<Long> sums = new HashSet<>();
+        for (int subset = 1; subset < 1 << n; subset++) {
+            long cards = 0;
+            int sum = 0;
+            for (int i = 0; i < n; i++) {
+                if ((subset & 1 << i) != 0) {
+                    cards |= 1L << ids[i];
+                    sum += Cards.value(ids[i]);
+                }
+            }
+            if (sum == value) {
+                (Integer.bitCount(subset) == 1 ? singles : sums).add(cards);
+            }
+        }
+        return singles.isEmpty() ? sums : singles;
+    }
+
+    @Test
+    public void testAllCapturesMatchBruteForce() {
+        Random random = new Random(5);
+        long[] out = new long[1024];
+        for (int round = 0; round < 2000; round++) {
+            long cards = 0;
+            for (int i = random.nextInt(14); i > 0; i--) {
+                cards |= 1L << random.nextInt(Cards.COUNT);
+            }
+            long table = cards;
+            for (int value = 1; value <= 10; value++) {
+                Set<Long> expected = bruteForce(table, value);
+                int count = Captures.all(table, value, out);
+                Set<Long> found = new HashSet<>();
+                for (int i = 0; i < count; i++) {
+                    found.add(out[i]);
+                }
+
+                assertEquals(count, found.size());
+                assertEquals(expected, found);
+                long best = Captures.best(table, value);
+                if (expected.isEmpty()) {
+                    assertEquals(0, best);
+                } else {
+                    assertTrue(expected.contains(best));
+                    int most = expected.stream().mapToInt(c -> Captures.worth(c, c == table)).max().getAsInt();
+                    assertEquals(most, Captures.worth(best, best == table));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testSingleCardComesBeforeSums() {
+        long table = mask(new Card("Cups", 7), new Card("Coins", 3), new Card("Coins", 4), new Card("Coins", 7));
+
+        assertEquals(mask(new Card("Coins", 7)), Captures.best(table, 7));
+        assertEquals(2, Captures.all(table, 7, new long[8]));
+    }
+
+    @Test
+    public void testBestSumPrefersCoinsAndSweeps() {
+        long table = mask(new Card("Cups", 2), new Card("Coins", 2), new Card("Swords", 4), new Card("Clubs", 1),
+                new Card("Clubs", 5));
+
+        // 2 + 4 could use either two; 1 + 5 would leave cards behind, so does 2 + 4 unless it sweeps
+        assertEquals(mask(new Card("Coins", 2), new Card("Swords", 4)), Captures.best(table, 6));
+        long small = mask(new Card("Clubs", 1), new Card("Clubs", 5));
+        assertEquals(small, Captures.best(small, 6));
+    }
+
+    @Test
+    public void testPlayTurnTakesTheSevenOfCoins() {
+        Game game = new Game(new SplittableRandom(1));
+        Player player = new Player("Alice");
+        player.hand = new ArrayList<>(Arrays.asList(new Card("Cups", 2), new Card("Swords", 7)));
+        game.tableCards = new ArrayList<>(Arrays.asList(new Card("Coins", 7), new Card("Clubs", 9)));
+
+        game.playTurn(player);
+
+        assertEquals(Arrays.asList(new Card("Coins", 7), new Card("Swords", 7)), player.discardPile);
+        assertEquals(Arrays.asList(new Card("Clubs", 9)), game.tableCards);
+        assertSame(player, game.lastCapturer);
+    }
+}
@@ -0,0 +1,92 @@
+package org.example;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class CardPileTest {
+
+    private static long walk(List<Card> cards) {
+        long mask = 0;
+        for (Card card : cards) {
+            mask |= 1L << Cards.id(Cards.suitIndex(card.getSuit()), card.getValue());
+        }
+        return mask;
+    }
+
+    @Test
+    public void testMaskFollowsListChanges() {
+        Random random = new Random(3);
+        CardPile pile = new CardPile();
+        List<Card> model = new ArrayList<>();
+        for (int step = 0; step < 20_000; step++) {
+            int op = random.nextInt(5);
+            Card card = Cards.card(random.nextInt(Cards.COUNT));
+            if (op == 0 && !model.isEmpty()) {
+                int index = random.nextInt(model.size());
+                assertEquals(model.remove(index), pile.remove(index));
+            } else if (op == 1 && !model.isEmpty()) {
+                // Setting may duplicate a card for a moment, as swaps do
+                int index = random.nextInt(model.size());
+                assertEquals(model.set(index, card), pile.set(index, card));
+            } else if (op == 2 && model.size() > 30) {
+                model.clear();
+                pile.clear();
+            } else if (op == 3) {
+                long taken = walk(model) & random.nextLong();
+                List<Card> expected = new ArrayList<>();
+                model.removeIf(c -> (taken & walk(Collections.singletonList(c))) != 0 && expected.add(c));
+                assertEquals(expected, CardPile.take(pile, taken));
+            } else {
+                int index = random.nextInt(model.size() + 1);
+                model.add(index, card);
+                pile.add(index, card);
+            }
+
+            assertEquals(model, pile);
+            assertEquals(walk(model), pile.mask());
+            assertEquals(model.contains(card), pile.contains(card));
+            assertEquals(model.indexOf(card), pile.indexOf(card));
+        }
+    }
+
+    @Test
+    public void testCollectionsShuffleKeepsTheMask() {
+        CardPile deck = CardPile.fullDeck();
+        Collections.shuffle(deck, new Random(8));
+
+        assertEquals(Cards.ALL, deck.mask());
+        assertEquals(40, deck.size());
+        assertNotEquals(CardPile.fullDeck(), deck);
+    }
+
+    @Test
+    public void testTalliesMatchTheCards() {
+        CardPile pile = new CardPile(Arrays.asList(new Card("Coins", 7), new Card("Coins", 2), new Card("Cups", 10),
+                new Card("Swords", 7)));
+
+        assertEquals(4, Cards.count(pile.mask()));
+        assertEquals(2, Cards.coins(pile.mask()));
+        assertEquals(26, Cards.sum(pile.mask()));
+        assertTrue((pile.mask() & Cards.SEVEN_OF_COINS) != 0);
+        assertEquals(Cards.sum(Cards.ALL), 4 * 55);
+        assertEquals(walk(pile), CardPile.maskOf(new ArrayList<>(pile)));
+    }
+
+    @Test
+    public void testPilesHandOutSharedCards() {
+        CardPile pile = new CardPile();
+        pile.add(new Card("Clubs", 4));
+
+        assertSame(Cards.card(pile.idAt(0)), pile.get(0));
+        assertTrue(pile.contains(new Card("Clubs", 4)));
+        assertFalse(pile.contains(new Card("Hearts", 4)));
+        assertFalse(pile.contains(new Card("Clubs", 11)));
+    }
+}
@@ -0,0 +1,152 @@
+package org.example;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class EndgameTest {
+
+    // The last deal of a greedy game with every hand shown to the seat to move
+    private static ScopaState lastDeal(long seed) {
+        Game game = ScopaPositions.lastDeal(seed);
+        ScopaState state = ScopaState.observe(game, game.players.get(game.turnOrder.get(0)));
+        for (int s = 0; s < 3; s++) {
+            state.hands[s] = CardPile.maskOf(game.players.get(s).hand);
+            state.hidden[s] = 0;
+        }
+        state.deck = 0;
+        return state;
+    }
+
+    // Plain minimax, the viewer against the other two
+    private static int minimax(ScopaState state, int viewer) {
+        if (!state.prepare(null)) {
+            state.finish();
+            int[] points = new int[3];
+            state.points(points);
+            return points[viewer] - Math.max(points[(viewer + 1) % 3], points[(viewer + 2) % 3]);
+        }
+        long[] moves = new long[3 * Captures.MAX_CAPTURES];
+        int count = state.moves(moves, new long[Captures.MAX_CAPTURES]);
+        boolean maximizing = state.toMove() == viewer;
+        int best = maximizing ? Integer.MIN_VALUE : Integer.MAX_VALUE;
+        for (int i = 0; i < count; i++) {
+            ScopaState child = new ScopaState();
+            child.copyFrom(state);
+            child.play(moves[i]);
+            int value = minimax(child, viewer);
+            best = maximizing ? Math.max(best, value) : Math.min(best, value);
+        }
+        return best;
+    }
+
+    @Test
+    public void testSolvesLikeMinimax() {
+        Endgame endgame = new Endgame(Strategy.GREEDY);
+        for (long seed = 0; seed < 60; seed++) {
+            ScopaState state = lastDeal(seed);
+            for (int viewer = 0; viewer < 3; viewer++) {
+                ScopaState copy = new ScopaState();
+                copy.copyFrom(state);
+                int expected = minimax(copy, viewer);
+
+                assertEquals("seed " + seed, expected, endgame.solve(state, viewer));
+                // Again, from the transposition table
+                assertEquals("seed " + seed, expected, endgame.solve(state, viewer));
+            }
+        }
+    }
+
+    @Test
+    public void testTurnOrderIsPartOfTheKey() {
+        Endgame endgame = new Endgame(Strategy.GREEDY);
+        int differing = 0;
+        for (long seed = 0; seed < 60; seed++) {
+            ScopaState state = lastDeal(seed);
+            ScopaState reversed = new ScopaState();
+            reversed.copyFrom(state);
+            // Same mover, the other two swapped
+            reversed.order[(state.turn + 1) % 3] = state.order[(state.turn + 2) % 3];
+            reversed.order[(state.turn + 2) % 3] = state.order[(state.turn + 1) % 3];
+            int viewer = state.toMove();
+            ScopaState copy = new ScopaState();
+            copy.copyFrom(reversed);
+            int expected = minimax(copy, viewer);
+            if (expected != endgame.solve(state, viewer)) {
+                differing++;
+            }
+
+            assertEquals("seed " + seed, expected, endgame.solve(reversed, viewer));
+        }
+        assertTrue(differing > 0);
+    }
+
+    @Test
+    public void testHashFollowsPlay() {
+        ScopaState state = lastDeal(11);
+        long[] moves = new long[3 * Captures.MAX_CAPTURES];
+        long[] scratch = new long[Captures.MAX_CAPTURES];
+        while (state.prepare(null)) {
+            int count = state.moves(moves, scratch);
+            long move = moves[count - 1];
+            long expected = Endgame.hash(state) ^ Endgame.change(state, move);
+            state.play(move);
+
+            assertEquals(Endgame.hash(state), expected);
+        }
+    }
+
+    // Sum over every way to give the unseen cards to the other two hands of the minimax value after move
+    private static int overSplits(ScopaState root, int seat, long move, long unseen, int first, int second) {
+        if (unseen == 0) {
+            ScopaState state = new ScopaState();
+            state.copyFrom(root);
+            state.deck = 0;
+            state.hidden[first] = 0;
+            state.hidden[second] = 0;
+            state.play(move);
+            return minimax(state, seat);
+        }
+        long card = Long.lowestOneBit(unseen);
+        int total = 0;
+        for (int to : new int[]{first, second}) {
+            if (root.hidden[to] > 0) {
+                ScopaState dealt = new ScopaState();
+                dealt.copyFrom(root);
+                dealt.hands[to] |= card;
+                dealt.hidden[to]--;
+                total += overSplits(dealt, seat, move, unseen & ~card, first, second);
+            }
+        }
+        return total;
+    }
+
+    @Test
+    public void testPlaysTheBestMoveOverEverySplit() {
+        Endgame endgame = new Endgame(Strategy.GREEDY);
+        long[] moves = new long[3 * Captures.MAX_CAPTURES];
+        int choices = 0;
+        for (long seed = 0; seed < 40; seed++) {
+            Game game = ScopaPositions.lastDeal(seed);
+            Player player = game.players.get(game.turnOrder.get(0));
+            ScopaState root = ScopaState.observe(game, player);
+            int seat = root.toMove();
+            int first = (seat + 1) % 3;
+            int second = (seat + 2) % 3;
+            int count = root.moves(moves, new long[Captures.MAX_CAPTURES]);
+            int best = Integer.MIN_VALUE;
+            for (int i = 0; i < count; i++) {
+                best = Math.max(best, overSplits(root, seat, moves[i], root.deck, first, second));
+            }
+
+            long chosen = endgame.choose(game, player);
+            long move = ScopaState.move(player.hand.get(Strategy.handIndex(chosen)).id(), Strategy.capture(chosen));
+
+            if (count > 1) {
+                assertEquals("seed " + seed, best, overSplits(root, seat, move, root.deck, first, second));
+                choices++;
+            }
+        }
+        assertTrue(choices > 10);
+    }
+}
@@ -0,0 +1,59 @@
+package org.example;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class IsmctsTest {
+
+    // The 2 and 9 of fivesOut, with three cards still to deal and the rest of the fives and tens hidden
+    private static Game hidden(Card[] second, Card[] third, Card[] deck) {
+        return ScopaPositions.handBuilt(Arrays.asList(new Card("Cups", 2), new Card("Clubs", 9)),
+                Collections.singletonList(new Card("Swords", 3)), Arrays.asList(second), Arrays.asList(third),
+                Arrays.asList(deck));
+    }
+
+    @Test
+    public void testSearchOnlySeesTheInformationSet() {
+        Game dealt = hidden(new Card[]{new Card("Coins", 5), new Card("Cups", 5)},
+                new Card[]{new Card("Swords", 5), new Card("Clubs", 5)},
+                new Card[]{new Card("Cups", 10), new Card("Swords", 10), new Card("Clubs", 10)});
+        // Same cards unseen by seat 0, dealt differently
+        Game redealt = hidden(new Card[]{new Card("Cups", 10), new Card("Clubs", 5)},
+                new Card[]{new Card("Swords", 10), new Card("Coins", 5)},
+                new Card[]{new Card("Cups", 5), new Card("Clubs", 10), new Card("Swords", 5)});
+        ForkJoinPool pool = new ForkJoinPool(1);
+        try {
+            Ismcts first = new Ismcts(TimeUnit.SECONDS.toNanos(60), 1500, pool, 2);
+            Ismcts second = new Ismcts(TimeUnit.SECONDS.toNanos(60), 1500, pool, 2);
+            long move = first.choose(dealt, dealt.players.get(0));
+
+            assertEquals(move, second.choose(redealt, redealt.players.get(0)));
+            // Each of the two trees ran its iterations
+            assertEquals(3000, first.lastIterations);
+            // Dropping the 2 leaves 5 on the table for a hidden five to sweep
+            assertEquals(1, Strategy.handIndex(move));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testPlaysWholeGamesLegally() {
+        ForkJoinPool pool = new ForkJoinPool(1);
+        try {
+            ScopaTournament.Stats stats = ScopaTournament.run(new String[]{"ismcts", "greedy", "greedy"}, 2,
+                    new SplittableRandom(5), pool);
+
+            assertEquals(2, stats.games);
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package org.example;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/** Hand-built three-player positions for the strategy tests. */
+final class ScopaPositions {
+
+    private ScopaPositions() {
+    }
+
+    // Plays greedy turns until the deck is empty and the seat to move has cards, then puts that seat
+    // first in turn order, as playRound would reach it
+    static Game lastDeal(long seed) {
+        Game game = new Game(new SplittableRandom(seed));
+        game.initializeGame();
+        int turn = 0;
+        while (!game.deck.isEmpty() || game.players.get(game.turnOrder.get(turn)).hand.isEmpty()) {
+            game.playTurn(game.players.get(game.turnOrder.get(turn)));
+            turn = (turn + 1) % 3;
+        }
+        while (turn-- > 0) {
+            game.turnOrder.add(game.turnOrder.remove(0));
+        }
+        return game;
+    }
+
+    /**
+     * Seat 0 to move, in turn order 0, 1, 2, with the given hands, table and deck; every other card
+     * is already in seat 0's discard pile.
+     */
+    static Game handBuilt(List<Card> hand, List<Card> table, List<Card> second, List<Card> third, List<Card> deck) {
+        Game game = new Game(new SplittableRandom(3));
+        game.initializeGame();
+        game.turnOrder = Arrays.asList(0, 1, 2);
+        game.deck.clear();
+        game.deck.addAll(deck);
+        game.tableCards.clear();
+        game.tableCards.addAll(table);
+        List<List<Card>> hands = Arrays.asList(hand, second, third);
+        for (int s = 0; s < 3; s++) {
+            Player player = game.players.get(s);
+            player.hand.clear();
+            player.hand.addAll(hands.get(s));
+            player.discardPile.clear();
+        }
+        long left = Cards.ALL & ~CardPile.maskOf(game.tableCards) & ~CardPile.maskOf(game.deck);
+        for (Player player : game.players) {
+            left &= ~CardPile.maskOf(player.hand);
+        }
+        for (long rest = left; rest != 0; rest &= rest - 1) {
+            game.players.get(0).discardPile.add(Cards.card(Long.numberOfTrailingZeros(rest)));
+        }
+        return game;
+    }
+
+    /**
+     * The 2 of Cups and the 9 of Clubs against a 3 on the table, with the four fives in the other two
+     * hands: dropping the 2 leaves 5 for the next player to sweep.
+     */
+    static Game fivesOut() {
+        return handBuilt(Arrays.asList(new Card("Cups", 2), new Card("Clubs", 9)),
+                Collections.singletonList(new Card("Swords", 3)),
+                Arrays.asList(new Card("Coins", 5), new Card("Cups", 5)),
+                Arrays.asList(new Card("Swords", 5), new Card("Clubs", 5)),
+                Collections.<Card>emptyList());
+    }
+}
@@ -0,0 +1,74 @@
+package org.example;
+
+import org.junit.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.Assert.*;
+
+public class ScopaStateTest {
+
+    @Test
+    public void testPlaysAndScoresLikeTheGame() {
+        for (long seed = 0; seed < 200; seed++) {
+            Game game = ScopaPositions.lastDeal(seed);
+            Player first = game.players.get(game.turnOrder.get(0));
+            ScopaState state = ScopaState.observe(game, first);
+            // With the deck gone the other hands share whatever was not seen
+            long unseen = state.deck;
+            for (int s = 0; s < 3; s++) {
+                state.hands[s] = CardPile.maskOf(game.players.get(s).hand);
+                state.hidden[s] = 0;
+                unseen &= ~state.hands[s];
+            }
+            assertEquals(0, unseen);
+            state.deck = 0;
+            int[] before = new int[3];
+            for (int s = 0; s < 3; s++) {
+                before[s] = game.players.get(s).score;
+            }
+
+            SplittableRandom unused = new SplittableRandom(0);
+            for (int turn = 0; !game.roundOver; turn = (turn + 1) % 3) {
+                Player player = game.players.get(game.turnOrder.get(turn));
+                if (player.hand.isEmpty()) {
+                    game.playTurn(player);
+                    continue;
+                }
+                assertTrue(state.prepare(unused));
+                assertEquals(game.turnOrder.get(turn).intValue(), state.toMove());
+                long move = Strategy.GREEDY.choose(game, player);
+                state.play(ScopaState.move(player.hand.get(Strategy.handIndex(move)).id(), Strategy.capture(move)));
+                player.strategy = (g, p) -> move;
+                game.playTurn(player);
+                assertEquals(CardPile.maskOf(game.tableCards), state.table);
+            }
+            assertFalse(state.prepare(unused));
+            game.handleRoundEnd();
+            game.calculateFinalScores();
+            state.finish();
+            int[] points = new int[3];
+            state.points(points);
+            for (int s = 0; s < 3; s++) {
+                assertEquals("seed " + seed, game.players.get(s).score - before[s], points[s]);
+            }
+        }
+    }
+
+    @Test
+    public void testOtherHandsComeFromUnseenCards() {
+        Game game = new Game(new SplittableRandom(4));
+        game.initializeGame();
+        Player viewer = game.players.get(0);
+        ScopaState state = ScopaState.observe(game, viewer);
+
+        assertEquals(0, state.hands[1]);
+        assertEquals(40 - 3 - 4, Long.bitCount(state.deck));
+        state.determinize(new SplittableRandom(1));
+        assertEquals(3, Long.bitCount(state.hands[1]));
+        assertEquals(3, Long.bitCount(state.hands[2]));
+        assertEquals(0, state.hands[1] & state.hands[2]);
+        assertEquals(40 - 9 - 4, Long.bitCount(state.deck));
+        assertEquals(Cards.ALL, state.deck | state.table | state.hands[0] | state.hands[1] | state.hands[2]);
+    }
+}
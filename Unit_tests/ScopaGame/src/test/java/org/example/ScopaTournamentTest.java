@@ -0,0 +1,68 @@
+package org.example;
+
+import org.junit.Test;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+
+public class ScopaTournamentTest {
+
+    @Test
+    public void testStatsFollowTheLineupWhateverTheTurnOrder() {
+        ForkJoinPool pool = new ForkJoinPool(1);
+        try {
+            ScopaTournament.Stats last = ScopaTournament.run(new String[]{"random", "random", "greedy"}, 400,
+                    new SplittableRandom(3), pool);
+            ScopaTournament.Stats first = ScopaTournament.run(new String[]{"greedy", "random", "random"}, 400,
+                    new SplittableRandom(3), pool);
+
+            // Turn order is drawn per game, so the greedy seat wins wherever it sits in the lineup
+            assertTrue(last.toString(), last.winRate(2) > Math.max(last.winRate(0), last.winRate(1)));
+            assertTrue(first.toString(), first.winRate(0) > Math.max(first.winRate(1), first.winRate(2)));
+            assertEquals(400, last.games);
+            assertEquals(last.games, last.wins[0] + last.wins[1] + last.wins[2] + last.ties);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testLineupSeatsThree() {
+        ScopaTournament.run(new String[]{"greedy", "greedy"}, 10, new SplittableRandom(1), ForkJoinPool.commonPool());
+    }
+
+    @Test
+    public void testEveryStrategyPlaysLegallyAndCapturingBeatsRandom() {
+        ScopaTournament.Stats stats = ScopaTournament.run(new String[]{"random", "greedy", "lookahead"}, 1000,
+                new SplittableRandom(2), ForkJoinPool.commonPool());
+
+        assertTrue(stats.toString(), stats.winRate(1) > stats.winRate(0) + 0.1);
+        assertTrue(stats.toString(), stats.winRate(2) > stats.winRate(0) + 0.1);
+        assertTrue(stats.roundsPercentile(50) >= 2);
+    }
+
+    @Test
+    public void testScopaSeekingKeepsTheTableOutOfReach() {
+        Game game = ScopaPositions.fivesOut();
+        Player player = game.players.get(0);
+
+        // Greedy drops the 2 it values least, leaving 5 on the table for any 5 to sweep
+        assertEquals(0, Strategy.handIndex(Strategy.named("greedy").choose(game, player)));
+        assertEquals(1, Strategy.handIndex(Strategy.named("scopa").choose(game, player)));
+        assertEquals(1, Strategy.handIndex(Strategy.named("lookahead").choose(game, player)));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testIllegalMoveIsRejected() {
+        Game game = new Game();
+        Player player = new Player("Alice");
+        player.hand.add(new Card("Cups", 5));
+        game.tableCards.add(new Card("Coins", 5));
+        // Captures are mandatory
+        player.strategy = (g, p) -> Strategy.move(0, 0);
+
+        game.playTurn(player);
+    }
+}
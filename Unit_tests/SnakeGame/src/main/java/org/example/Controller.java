@@ -0,0 +1,168 @@
+package org.example;
+
+/**
+ * Steers the snake in headless play, in place of the keys a human presses at the console. It is asked
+ * once per tick, before {@link Game#updateGame()}, and sees the game as the player would.
+ */
+interface Controller {
+
+    // Direction code (Snake.UP ...) to turn to before the next move, or -1 to keep going
+    int steer(Game game);
+
+    static Controller named(String name, int boardSize) {
+        switch (name) {
+            case "greedy": return greedy();
+            case "bfs": return new Bfs(boardSize);
+            case "hamiltonian": return new Hamiltonian(boardSize);
+            default: throw new IllegalArgumentException("Unknown controller: " + name);
+        }
+    }
+
+    // True if moving the head onto (x, y) next tick does not end the game
+    static boolean isSafe(Game game, int x, int y) {
+        SnakeBody body = game.snake.body;
+        if (x < 0 || y < 0 || x >= game.board.size || y >= game.board.size) {
+            return false;
+        }
+        if (!body.isOccupied(x, y)) {
+            return true;
+        }
+        // The tail moves out of the way unless the snake is growing
+        Coordinates tail = body.get(body.size() - 1);
+        return game.snake.growing == 0 && body.size() > 1 && tail.x == x && tail.y == y;
+    }
+
+    // Takes the safe step closest to the food, straight ahead first
+    static Controller greedy() {
+        return game -> {
+            Coordinates head = game.snake.body.head();
+            Coordinates food = game.food.position;
+            int heading = game.snake.heading();
+            int best = -1;
+            int bestDistance = Integer.MAX_VALUE;
+            for (int turn = -1; turn <= 1; turn++) {
+                int d = (heading + turn) & 3;
+                int x = head.x + Snake.DX[d];
+                int y = head.y + Snake.DY[d];
+                int distance = Math.abs(x - food.x) + Math.abs(y - food.y);
+                if (isSafe(game, x, y) && (distance < bestDistance || distance == bestDistance && d == heading)) {
+                    best = d;
+                    bestDistance = distance;
+                }
+            }
+            return best;
+        };
+    }
+
+    /**
+     * Takes the first step of a shortest path to the food or bonus food, whichever is nearer, around
+     * the body as it is now. Falls back to the greedy step when no food can be reached.
+     */
+    final class Bfs implements Controller {
+        private final int size;
+        private final int[] queue;
+        // First step of the path to each cell, valid where seen matches the current search
+        private final int[] firstStep;
+        private final int[] seen;
+        private final Controller fallback = greedy();
+        private int search;
+
+        Bfs(int boardSize) {
+            this.size = boardSize;
+            this.queue = new int[boardSize * boardSize];
+            this.firstStep = new int[boardSize * boardSize];
+            this.seen = new int[boardSize * boardSize];
+        }
+
+        @Override
+        public int steer(Game game) {
+            search++;
+            Coordinates head = game.snake.body.head();
+            int heading = game.snake.heading();
+            int tail = 0;
+            for (int turn = -1; turn <= 1; turn++) {
+                int d = (heading + turn) & 3;
+                int x = head.x + Snake.DX[d];
+                int y = head.y + Snake.DY[d];
+                if (isSafe(game, x, y) && seen[y * size + x] != search) {
+                    seen[y * size + x] = search;
+                    firstStep[y * size + x] = d;
+                    queue[tail++] = y * size + x;
+                }
+            }
+            int food = cell(game.food);
+            int bonus = cell(game.bonusFood);
+            for (int next = 0; next < tail; next++) {
+                int cell = queue[next];
+                if (cell == food || cell == bonus) {
+                    return firstStep[cell];
+                }
+                int x = cell % size;
+                int y = cell / size;
+                for (int d = 0; d < 4; d++) {
+                    int nx = x + Snake.DX[d];
+                    int ny = y + Snake.DY[d];
+                    if (nx >= 0 && ny >= 0 && nx < size && ny < size && seen[ny * size + nx] != search
+                            && !game.snake.body.isOccupied(nx, ny)) {
+                        seen[ny * size + nx] = search;
+                        firstStep[ny * size + nx] = firstStep[cell];
+                        queue[tail++] = ny * size + nx;
+                    }
+                }
+            }
+            return fallback.steer(game);
+        }
+
+        private int cell(Food food) {
+            if (food == null) {
+                return -1;
+            }
+            Coordinates position = food.position;
+            return position.x < 0 || position.y < 0 || position.x >= size || position.y >= size ? -1
+                    : position.y * size + position.x;
+        }
+    }
+
+    /**
+     * Follows a fixed cycle through every cell of an even-sized board: along the top row, then back
+     * and forth through the other columns, and up the first column. It ignores the food, so it is slow
+     * but never dies and fills the board.
+     */
+    final class Hamiltonian implements Controller {
+        private final int size;
+        private final byte[] next;
+
+        Hamiltonian(int boardSize) {
+            if (boardSize % 2 != 0) {
+                throw new IllegalArgumentException("A Hamiltonian cycle needs an even board size, got " + boardSize);
+            }
+            this.size = boardSize;
+            this.next = new byte[boardSize * boardSize];
+            int last = boardSize - 1;
+            for (int y = 0; y < boardSize; y++) {
+                for (int x = 0; x < boardSize; x++) {
+                    int d;
+                    if (y == 0) {
+                        d = x < last ? Snake.RIGHT : Snake.DOWN;
+                    } else if (x == 0) {
+                        d = Snake.UP;
+                    } else if (y % 2 == 1) {
+                        d = x > 1 ? Snake.LEFT : y < last ? Snake.DOWN : Snake.LEFT;
+                    } else {
+                        d = x < last ? Snake.RIGHT : Snake.DOWN;
+                    }
+                    next[y * boardSize + x] = (byte) d;
+                }
+            }
+        }
+
+        @Override
+        public int steer(Game game) {
+            Coordinates head = game.snake.body.head();
+            if (head.x < 0 || head.y < 0 || head.x >= size || head.y >= size) {
+                return -1;
+            }
+            return next[head.y * size + head.x];
+        }
+    }
+}
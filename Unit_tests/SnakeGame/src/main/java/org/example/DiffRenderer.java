@@ -0,0 +1,232 @@
+package org.example;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
+
+/**
+ * Draws the board on an ANSI terminal, sending only the cells that changed since the last frame: the
+ * cells the head entered and the tail left, and food that appeared or moved. What the terminal shows
+ * is kept in a frame buffer; a frame paints the snake and food into a scratch buffer, compares the
+ * painted cells and the cells drawn last frame with it, and writes the differences as cursor moves and
+ * characters in one channel write. How often frames are drawn is up to the caller, e.g. the render
+ * rate of {@link GameLoop}.
+ */
+final class DiffRenderer {
+    private static final byte BLANK = 0;
+    private static final byte BODY = 1;
+    private static final byte HEAD = 2;
+    private static final byte FOOD = 3;
+    private static final byte BLUE = 4;
+    private static final byte GOLD = 5;
+    private static final byte[] GLYPHS = {' ', 'o', '@', '*', '+', '$'};
+    // SGR color of each glyph: default, green, green, red, blue, yellow
+    private static final int[] COLORS = {39, 32, 32, 31, 34, 33};
+
+    private final WritableByteChannel out;
+    private final int size;
+    // What the terminal shows
+    private final byte[] shown;
+    // What this frame paints; blank again after the frame
+    private final byte[] frame;
+    // Cells painted non-blank by this frame and by the last one
+    private int[] painted;
+    private int[] drawn;
+    private int paintedCount;
+    private int drawnCount;
+    private ByteBuffer buffer = ByteBuffer.allocate(1 << 12);
+    private boolean started;
+    private int cursorRow = -1;
+    private int cursorColumn = -1;
+    private int color = -1;
+    private int length = -1;
+    private long frames;
+    private long cellsWritten;
+
+    DiffRenderer(WritableByteChannel out, int boardSize) {
+        this.out = out;
+        this.size = boardSize;
+        this.shown = new byte[boardSize * boardSize];
+        this.frame = new byte[boardSize * boardSize];
+        this.painted = new int[16];
+        this.drawn = new int[16];
+    }
+
+    void render(Game game) {
+        buffer.clear();
+        if (!started) {
+            drawBorder();
+            started = true;
+        }
+
+        SnakeBody body = game.snake.body;
+        for (int i = body.size() - 1; i >= 0; i--) {
+            paint(body.get(i), i == 0 ? HEAD : BODY);
+        }
+        paint(game.food.position, FOOD);
+        if (game.bonusFood != null) {
+            paint(game.bonusFood.position, game.bonusFood.blockColor == BlockColor.GOLD ? GOLD : BLUE);
+        }
+
+        for (int i = 0; i < paintedCount; i++) {
+            update(painted[i], frame[painted[i]]);
+        }
+        for (int i = 0; i < drawnCount; i++) {
+            if (frame[drawn[i]] == BLANK) {
+                update(drawn[i], BLANK);
+            }
+        }
+        for (int i = 0; i < paintedCount; i++) {
+            frame[painted[i]] = BLANK;
+        }
+        int[] swap = drawn;
+        drawn = painted;
+        drawnCount = paintedCount;
+        painted = swap;
+        paintedCount = 0;
+
+        if (body.size() != length) {
+            length = body.size();
+            moveTo(size + 3, 1);
+            setColor(COLORS[BLANK]);
+            putAscii("Length: ");
+            putInt(length);
+            putAscii("\u001b[K");
+            cursorRow = -1;
+        }
+        frames++;
+        flush();
+    }
+
+    // Leaves the cursor below the board, for messages after the game
+    void finish() {
+        buffer.clear();
+        moveTo(size + 4, 1);
+        setColor(COLORS[BLANK]);
+        putAscii("\u001b[?25h");
+        flush();
+        started = false;
+    }
+
+    long frames() {
+        return frames;
+    }
+
+    long cellsWritten() {
+        return cellsWritten;
+    }
+
+    private void paint(Coordinates position, byte glyph) {
+        if (position.x < 0 || position.y < 0 || position.x >= size || position.y >= size) {
+            return;
+        }
+        int cell = position.y * size + position.x;
+        if (frame[cell] == BLANK) {
+            if (paintedCount == painted.length) {
+                painted = Arrays.copyOf(painted, paintedCount * 2);
+                drawn = Arrays.copyOf(drawn, painted.length);
+            }
+            painted[paintedCount++] = cell;
+        }
+        frame[cell] = glyph;
+    }
+
+    private void update(int cell, byte glyph) {
+        if (shown[cell] == glyph) {
+            return;
+        }
+        shown[cell] = glyph;
+        // Inside the border: rows and columns are 1-based and the border takes the first of each
+        moveTo(cell / size + 2, cell % size + 2);
+        setColor(COLORS[glyph]);
+        ensure(1);
+        buffer.put(GLYPHS[glyph]);
+        cursorColumn++;
+        cellsWritten++;
+    }
+
+    private void drawBorder() {
+        putAscii("\u001b[2J\u001b[?25l");
+        cursorRow = -1;
+        setColor(COLORS[BLANK]);
+        for (int row = 1; row <= size + 2; row++) {
+            moveTo(row, 1);
+            for (int column = 1; column <= size + 2; column++) {
+                ensure(1);
+                boolean edge = row == 1 || row == size + 2 || column == 1 || column == size + 2;
+                buffer.put((byte) (edge ? '#' : ' '));
+            }
+        }
+        cursorRow = -1;
+        Arrays.fill(shown, BLANK);
+        length = -1;
+    }
+
+    // Rows and columns are 1-based
+    private void moveTo(int row, int column) {
+        if (row == cursorRow && column == cursorColumn) {
+            return;
+        }
+        putAscii("\u001b[");
+        putInt(row);
+        putAscii(";");
+        putInt(column);
+        putAscii("H");
+        cursorRow = row;
+        cursorColumn = column;
+    }
+
+    private void setColor(int sgr) {
+        if (sgr == color) {
+            return;
+        }
+        putAscii("\u001b[");
+        putInt(sgr);
+        putAscii("m");
+        color = sgr;
+    }
+
+    private void putAscii(String text) {
+        ensure(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            buffer.put((byte) text.charAt(i));
+        }
+    }
+
+    private void putInt(int value) {
+        ensure(11);
+        if (value < 0) {
+            buffer.put((byte) '-');
+            value = -value;
+        }
+        int digits = 1;
+        for (int rest = value / 10; rest > 0; rest /= 10) {
+            digits *= 10;
+        }
+        for (; digits > 0; digits /= 10) {
+            buffer.put((byte) ('0' + value / digits % 10));
+        }
+    }
+
+    private void ensure(int bytes) {
+        if (buffer.remaining() < bytes) {
+            ByteBuffer larger = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + bytes));
+            buffer.flip();
+            larger.put(buffer);
+            buffer = larger;
+        }
+    }
+
+    private void flush() {
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining()) {
+                out.write(buffer);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package org.example;
+
+import java.util.SplittableRandom;
+
+/**
+ * The board cells not covered by the snake, as a dense array plus each cell's position in it, so
+ * adding, removing and drawing a uniformly random free cell take constant time however full the
+ * board is. Removed cells are swapped with the last free one.
+ */
+final class FreeCells {
+    private final int[] cells;
+    // Index of each cell in cells, or -1 if it is taken
+    private final int[] positions;
+    private int count;
+
+    FreeCells(int total) {
+        cells = new int[total];
+        positions = new int[total];
+        for (int cell = 0; cell < total; cell++) {
+            cells[cell] = cell;
+            positions[cell] = cell;
+        }
+        count = total;
+    }
+
+    int size() {
+        return count;
+    }
+
+    boolean contains(int cell) {
+        return positions[cell] >= 0;
+    }
+
+    void remove(int cell) {
+        int position = positions[cell];
+        if (position < 0) {
+            return;
+        }
+        int last = cells[--count];
+        cells[position] = last;
+        positions[last] = position;
+        positions[cell] = -1;
+    }
+
+    void add(int cell) {
+        if (positions[cell] >= 0) {
+            return;
+        }
+        cells[count] = cell;
+        positions[cell] = count++;
+    }
+
+    // Puts the free cells back in ascending order, so which cell a random draw picks no longer depends
+    // on the order cells were taken and freed
+    void sort() {
+        count = 0;
+        for (int cell = 0; cell < positions.length; cell++) {
+            if (positions[cell] >= 0) {
+                cells[count] = cell;
+                positions[cell] = count++;
+            }
+        }
+    }
+
+    // Returns -1 if every cell is taken
+    int random(SplittableRandom random) {
+        return count == 0 ? -1 : cells[random.nextInt(count)];
+    }
+}
@@ -0,0 +1,133 @@
+package org.example;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+import java.util.function.LongSupplier;
+
+/**
+ * Fixed-timestep game loop on a monotonic nanosecond clock. Update deadlines advance by the step from
+ * the previous deadline rather than from when the update finished, so the time spent updating,
+ * rendering and reading input does not slow the game down. The step is read again after every update,
+ * since the snake speeds up as it eats. Rendering runs at its own rate and is never caught up.
+ */
+final class GameLoop {
+
+    // What to do when updates fall behind by more than one step
+    enum Policy {
+        // Run missed updates back to back, up to maxCatchUp of them after the late one
+        CATCH_UP,
+        // Drop the missed updates and realign the deadline to now
+        SKIP
+    }
+
+    interface Clock {
+        long nanoTime();
+
+        void sleepUntil(long deadline);
+    }
+
+    static final Clock SYSTEM = new Clock() {
+        @Override
+        public long nanoTime() {
+            return System.nanoTime();
+        }
+
+        @Override
+        public void sleepUntil(long deadline) {
+            for (long left = deadline - System.nanoTime(); left > 0; left = deadline - System.nanoTime()) {
+                LockSupport.parkNanos(left);
+                if (Thread.interrupted()) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    };
+
+    static final class Metrics {
+        long updates;
+        long renders;
+        // Updates that started after the following update was already due
+        long missedDeadlines;
+        // Updates dropped by the SKIP policy or beyond maxCatchUp
+        long skippedUpdates;
+        // How late updates started after their deadline
+        long maxJitterNanos;
+        long totalJitterNanos;
+
+        double meanJitterMillis() {
+            return updates == 0 ? 0 : totalJitterNanos / 1e6 / updates;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("updates %d, renders %d, missed deadlines %d, skipped updates %d, jitter mean %.3f ms, max %.3f ms",
+                    updates, renders, missedDeadlines, skippedUpdates, meanJitterMillis(), maxJitterNanos / 1e6);
+        }
+    }
+
+    private final Clock clock;
+    private final long renderStepNanos;
+    private final Policy policy;
+    private final int maxCatchUp;
+    private final Metrics metrics = new Metrics();
+    private volatile long gameTimeNanos;
+
+    GameLoop(Clock clock, long renderStepNanos, Policy policy, int maxCatchUp) {
+        this.clock = clock;
+        this.renderStepNanos = renderStepNanos;
+        this.policy = policy;
+        this.maxCatchUp = maxCatchUp;
+    }
+
+    // Runs until running turns false, checked before every update
+    void run(LongSupplier updateStepNanos, Runnable update, Runnable render, BooleanSupplier running) {
+        long start = clock.nanoTime();
+        long nextUpdate = start + updateStepNanos.getAsLong();
+        long nextRender = start;
+        while (running.getAsBoolean() && !Thread.currentThread().isInterrupted()) {
+            long now = clock.nanoTime();
+            for (int caughtUp = 0; now >= nextUpdate && running.getAsBoolean(); caughtUp++) {
+                long late = now - nextUpdate;
+                long step = updateStepNanos.getAsLong();
+                if (caughtUp > 0 && (policy == Policy.SKIP || caughtUp > maxCatchUp)) {
+                    metrics.skippedUpdates += late / step + 1;
+                    nextUpdate = now + step;
+                    break;
+                }
+                metrics.maxJitterNanos = Math.max(metrics.maxJitterNanos, late);
+                metrics.totalJitterNanos += late;
+                if (late >= step) {
+                    metrics.missedDeadlines++;
+                }
+                update.run();
+                metrics.updates++;
+                gameTimeNanos += step;
+                nextUpdate += updateStepNanos.getAsLong();
+            }
+            if (now >= nextRender) {
+                render.run();
+                metrics.renders++;
+                nextRender += renderStepNanos;
+                if (nextRender <= now) {
+                    nextRender = now + renderStepNanos;
+                }
+            }
+            clock.sleepUntil(Math.min(nextUpdate, nextRender));
+        }
+    }
+
+    // Time the game has advanced by: the steps of all updates run, excluding skipped ones
+    long gameTimeNanos() {
+        return gameTimeNanos;
+    }
+
+    Metrics metrics() {
+        return metrics;
+    }
+
+    static long perSecond(double rate) {
+        return (long) (TimeUnit.SECONDS.toNanos(1) / rate);
+    }
+}
@@ -0,0 +1,24 @@
+package org.example;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Game clock for headless play and replays: advances by one step at the snake's speed with every
+ * update, as {@link GameLoop#gameTimeNanos()} does in the console game, so the golden bonus timer
+ * sees the same times.
+ */
+final class GameTime implements LongSupplier {
+    long nanos;
+
+    @Override
+    public long getAsLong() {
+        return nanos;
+    }
+
+    // The step is taken at the speed before the update, like GameLoop
+    void update(Game game) {
+        long step = GameLoop.perSecond(game.snake.speed);
+        game.updateGame();
+        nanos += step;
+    }
+}
@@ -0,0 +1,102 @@
+package org.example;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Bounded lock-free queue of timestamped key presses from one input thread to the game loop. The
+ * reader never blocks the loop: when the queue is full further keys are dropped and counted. The loop
+ * drains the keys pressed up to a given time at the start of each tick, oldest first, so the order
+ * of keys, and which tick sees them, depends only on their timestamps.
+ */
+final class KeyEvents {
+
+    interface Listener {
+        void key(char key, long nanoTime);
+    }
+
+    private final char[] keys;
+    private final long[] times;
+    private final int mask;
+    // Next slot to read, written only by the loop
+    private final AtomicLong head = new AtomicLong();
+    // Next slot to write, written only by the input thread
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long dropped;
+
+    KeyEvents(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity) * 2 - 1);
+        this.keys = new char[size];
+        this.times = new long[size];
+        this.mask = size - 1;
+    }
+
+    // Called from the input thread only
+    boolean offer(char key, long nanoTime) {
+        long t = tail.get();
+        if (t - head.get() == keys.length) {
+            dropped++;
+            return false;
+        }
+        keys[(int) t & mask] = key;
+        times[(int) t & mask] = nanoTime;
+        // Publishes the slot; the loop reads tail before the slot
+        tail.lazySet(t + 1);
+        return true;
+    }
+
+    // Called from the loop only; returns the number of keys handed to the listener
+    int drain(long until, Listener listener) {
+        long h = head.get();
+        long t = tail.get();
+        int drained = 0;
+        for (; h < t && times[(int) h & mask] <= until; h++, drained++) {
+            listener.key(keys[(int) h & mask], times[(int) h & mask]);
+        }
+        head.lazySet(h);
+        return drained;
+    }
+
+    // Waits for the next key outside the game, e.g. for a prompt; whitespace is skipped
+    char take() {
+        while (true) {
+            long h = head.get();
+            if (h < tail.get()) {
+                char key = keys[(int) h & mask];
+                head.lazySet(h + 1);
+                if (!Character.isWhitespace(key)) {
+                    return key;
+                }
+            } else {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+            }
+        }
+    }
+
+    int size() {
+        return (int) (tail.get() - head.get());
+    }
+
+    long dropped() {
+        return dropped;
+    }
+
+    // Reads in on a daemon thread until end of input, stamping every key with System.nanoTime
+    static Thread startReader(InputStream in, KeyEvents events) {
+        Thread reader = new Thread(() -> {
+            try {
+                for (int key = in.read(); key >= 0; key = in.read()) {
+                    events.offer((char) key, System.nanoTime());
+                }
+            } catch (IOException e) {
+                System.err.println("Input closed: " + e.getMessage());
+            }
+        }, "snake-input");
+        reader.setDaemon(true);
+        reader.start();
+        return reader;
+    }
+}
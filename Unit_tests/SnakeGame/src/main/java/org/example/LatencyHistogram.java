@@ -0,0 +1,79 @@
+package org.example;
+
+/**
+ * Log-linear histogram of nanosecond durations: exact below 16 ns, then 16 buckets per power of two,
+ * so percentiles are within 1/16 of the true value. Values past about a minute land in the last
+ * bucket. Not thread-safe; one writer at a time.
+ */
+final class LatencyHistogram {
+    private static final int SUB_BITS = 4;
+    private static final int SUB = 1 << SUB_BITS;
+    private static final int MAX_EXPONENT = 36;
+
+    private final long[] counts = new long[(MAX_EXPONENT - SUB_BITS + 2) * SUB];
+    private long count;
+    private long max;
+
+    void record(long nanos) {
+        long value = Math.max(0, nanos);
+        counts[index(value)]++;
+        count++;
+        max = Math.max(max, value);
+    }
+
+    void merge(LatencyHistogram other) {
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] += other.counts[i];
+        }
+        count += other.count;
+        max = Math.max(max, other.max);
+    }
+
+    long count() {
+        return count;
+    }
+
+    long max() {
+        return max;
+    }
+
+    // Middle of the bucket holding the nearest-rank percentile, p in [0, 100]; 0 if empty
+    long percentile(double p) {
+        long rank = Math.max(1, (long) Math.ceil(p / 100 * count));
+        if (rank >= count) {
+            return max;
+        }
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(max, (lowest(i) + lowest(i + 1) - 1) / 2);
+            }
+        }
+        return 0;
+    }
+
+    private static int index(long value) {
+        if (value < SUB) {
+            return (int) value;
+        }
+        int exponent = Math.min(63 - Long.numberOfLeadingZeros(value), MAX_EXPONENT);
+        int sub = (int) (Math.min(value, (2L << MAX_EXPONENT) - 1) >>> (exponent - SUB_BITS)) & (SUB - 1);
+        return (exponent - SUB_BITS + 1) * SUB + sub;
+    }
+
+    // Smallest value counted in bucket i
+    private static long lowest(int i) {
+        if (i < SUB) {
+            return i;
+        }
+        int exponent = i / SUB + SUB_BITS - 1;
+        return (long) (SUB + i % SUB) << (exponent - SUB_BITS);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("n %d, p50 %.3f ms, p90 %.3f ms, p99 %.3f ms, p99.9 %.3f ms, max %.3f ms", count,
+                percentile(50) / 1e6, percentile(90) / 1e6, percentile(99) / 1e6, percentile(99.9) / 1e6, max / 1e6);
+    }
+}
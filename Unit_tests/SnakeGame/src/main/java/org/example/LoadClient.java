@@ -0,0 +1,109 @@
+package org.example;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stand-in for many players of a {@link SnakeServer}: opens one connection per session, starts a game
+ * on each, turning right away from the top wall the snake starts against, and then presses a random
+ * arrow key on every session a few times a second, all from one thread. It reads and counts what the
+ * host sends, so the host's writes never back up.
+ */
+final class LoadClient implements Closeable {
+    private static final byte[] KEYS = "wdsa".getBytes(StandardCharsets.US_ASCII);
+    // Each session presses a key this often
+    private static final long KEY_INTERVAL = TimeUnit.MILLISECONDS.toNanos(250);
+    // The line the host sends when a snake dies, OVER <tick> <length>
+    private static final byte[] OVER = "OVER ".getBytes(StandardCharsets.US_ASCII);
+
+    private final Selector selector;
+    private final SocketChannel[] channels;
+    // Per session, how much of OVER the line read so far starts with, or -1 if it is another line
+    private final int[] matched;
+    private final SplittableRandom random;
+    private long lines;
+    private long gamesOver;
+
+    LoadClient(int port, int sessions, int boardSize, String difficulty, SplittableRandom random) throws IOException {
+        this.random = random;
+        this.selector = Selector.open();
+        this.channels = new SocketChannel[sessions];
+        this.matched = new int[sessions];
+        InetSocketAddress host = new InetSocketAddress(InetAddress.getLoopbackAddress(), port);
+        byte[] start = ("START " + boardSize + " " + difficulty + "\nd").getBytes(StandardCharsets.US_ASCII);
+        for (int i = 0; i < sessions; i++) {
+            SocketChannel channel = SocketChannel.open(host);
+            channel.write(ByteBuffer.wrap(start));
+            channel.configureBlocking(false);
+            channel.register(selector, SelectionKey.OP_READ, i);
+            channels[i] = channel;
+        }
+    }
+
+    // Plays for the given time; returns what was sent and received
+    String run(long nanos) throws IOException {
+        ByteBuffer in = ByteBuffer.allocate(64 * 1024);
+        ByteBuffer key = ByteBuffer.allocate(1);
+        long keysSent = 0;
+        long start = System.nanoTime();
+        long end = start + nanos;
+        long nextKeys = start + KEY_INTERVAL;
+        for (long now = start; now < end; now = System.nanoTime()) {
+            long wait = Math.max(1, TimeUnit.NANOSECONDS.toMillis(Math.min(nextKeys, end) - now));
+            selector.select(wait);
+            for (SelectionKey ready : selector.selectedKeys()) {
+                in.clear();
+                int read = ((SocketChannel) ready.channel()).read(in);
+                if (read < 0) {
+                    ready.cancel();
+                    continue;
+                }
+                // A line may be split over reads, so the match carries over to the next one
+                int session = (Integer) ready.attachment();
+                int match = matched[session];
+                for (int i = 0; i < read; i++) {
+                    byte b = in.get(i);
+                    if (b == '\n') {
+                        lines++;
+                        if (match == OVER.length) {
+                            gamesOver++;
+                        }
+                        match = 0;
+                    } else if (match >= 0 && match < OVER.length) {
+                        match = b == OVER[match] ? match + 1 : -1;
+                    }
+                }
+                matched[session] = match;
+            }
+            selector.selectedKeys().clear();
+            if (System.nanoTime() >= nextKeys) {
+                for (SocketChannel channel : channels) {
+                    key.clear();
+                    key.put(KEYS[random.nextInt(KEYS.length)]).flip();
+                    keysSent += channel.write(key);
+                }
+                nextKeys += KEY_INTERVAL;
+            }
+        }
+        return String.format("%d keys sent, %d lines received, %d games over", keysSent, lines, gamesOver);
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (SocketChannel channel : channels) {
+            if (channel != null) {
+                channel.close();
+            }
+        }
+        selector.close();
+    }
+}
@@ -0,0 +1,35 @@
+package org.example;
+
+import java.util.SplittableRandom;
+
+/**
+ * How many snake segments cover each cell of a k x k board, and the free cells food can go to. Cells
+ * are numbered y * k + x, so boards are limited to {@link #MAX_SIZE} blocks a side.
+ */
+interface Occupancy {
+    int MAX_SIZE = 46_340;
+    // Boards larger than this are tiled, so memory follows the snake rather than the board
+    int DENSE_MAX_SIZE = 1024;
+
+    void add(int cell);
+
+    void remove(int cell);
+
+    // Segments on the cell
+    int count(int cell);
+
+    int freeCells();
+
+    // A uniformly random free cell other than avoid (-1 for none), or -1 if there is none
+    int randomFree(SplittableRandom random, int avoid);
+
+    // Makes randomFree depend only on which cells are free, not on the order they were taken and freed
+    void canonicalize();
+
+    static Occupancy forBoard(int size) {
+        if (size > MAX_SIZE) {
+            throw new IllegalArgumentException("Board size " + size + " is larger than " + MAX_SIZE);
+        }
+        return size > DENSE_MAX_SIZE ? new TiledOccupancy(size) : new DenseOccupancy(size);
+    }
+}
@@ -0,0 +1,382 @@
+package org.example;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * A recorded Snake session: every key press with the tick it was pressed before, and a snapshot of
+ * the full game state every {@code snapshotEvery} ticks, in a compact binary log. A replay restores a
+ * snapshot and runs {@link Game#updateGame()} forward with the recorded keys, on a {@link GameTime}
+ * clock; seeking restores the nearest snapshot before the tick, so it costs at most
+ * {@code snapshotEvery} updates however long the session.
+ * <p>
+ * The food generator's state cannot be read back, so every snapshot draws a seed from it, reseeds the
+ * game with that seed and stores it. Where food lands also depends on the order of the free-cell
+ * index, so snapshots sort it. A replay that passes a snapshot compares its own state with the
+ * recorded one and fails if they differ.
+ * <pre>
+ * header   "SNK1" boardSize difficulty snapshotEvery
+ * records  'k' ticks key | 's' ticks seed length state | 'e' ticks   (ticks since the previous record)
+ * index    count offset...                                              (offsets of the snapshots)
+ * footer   offset of the index, 4 bytes
+ * </pre>
+ * Integers are LEB128 varints, zigzag-encoded where they can be negative; the speed is a raw double.
+ */
+final class ReplayLog {
+    private static final byte[] MAGIC = {'S', 'N', 'K', '1'};
+    private static final byte KEY = 'k';
+    private static final byte SNAPSHOT = 's';
+    private static final byte END = 'e';
+
+    final int boardSize;
+    final Difficulty difficulty;
+    final int snapshotEvery;
+    // Ticks recorded, i.e. updates run
+    final int ticks;
+    private final ByteBuffer log;
+    // Offset of the snapshot at tick i * snapshotEvery
+    private final int[] snapshots;
+
+    private ReplayLog(ByteBuffer log) {
+        this.log = log;
+        byte[] magic = new byte[MAGIC.length];
+        ByteBuffer in = log.duplicate();
+        in.get(magic);
+        if (!Arrays.equals(magic, MAGIC)) {
+            throw new IllegalArgumentException("Not a Snake replay log");
+        }
+        this.boardSize = (int) getVarint(in);
+        this.difficulty = Difficulty.values()[in.get()];
+        this.snapshotEvery = (int) getVarint(in);
+
+        in.position(log.getInt(log.limit() - 4));
+        this.snapshots = new int[(int) getVarint(in)];
+        for (int i = 0, offset = 0; i < snapshots.length; i++) {
+            offset += (int) getVarint(in);
+            snapshots[i] = offset;
+        }
+
+        // The end record follows the last snapshot, with only keys between them
+        in.position(snapshots[snapshots.length - 1]);
+        int tick = (snapshots.length - 1) * snapshotEvery;
+        in.get();
+        getVarint(in);
+        getVarint(in);
+        int length = (int) getVarint(in);
+        in.position(in.position() + length);
+        for (byte type = in.get(); ; type = in.get()) {
+            tick += (int) getVarint(in);
+            if (type == END) {
+                break;
+            }
+            in.get();
+        }
+        this.ticks = tick;
+    }
+
+    static ReplayLog read(ByteBuffer log) {
+        return new ReplayLog(log.slice());
+    }
+
+    static ReplayLog read(byte[] log) {
+        return read(ByteBuffer.wrap(log));
+    }
+
+    /**
+     * Writes the log of one session while it is played. Create it on a fresh or reset game, pass every
+     * key handed to {@link Game#handleKeyPress} to {@link #key}, and call {@link #tick} after every
+     * {@link Game#updateGame()}.
+     */
+    static final class Recorder {
+        private final Game game;
+        private final int snapshotEvery;
+        private final Bytes out = new Bytes();
+        private final Bytes state = new Bytes();
+        private int[] snapshots = new int[16];
+        private int snapshotCount;
+        private int tick;
+        private int recorded;
+
+        Recorder(Game game, int snapshotEvery) {
+            this.game = game;
+            this.snapshotEvery = snapshotEvery;
+            out.put(MAGIC);
+            out.putVarint(game.board.size);
+            out.put((byte) game.level.ordinal());
+            out.putVarint(snapshotEvery);
+            snapshot();
+        }
+
+        void key(char key) {
+            record(KEY);
+            out.put((byte) key);
+        }
+
+        void tick() {
+            if (++tick % snapshotEvery == 0) {
+                snapshot();
+            }
+        }
+
+        byte[] finish() {
+            record(END);
+            int index = out.size();
+            out.putVarint(snapshotCount);
+            for (int i = 0; i < snapshotCount; i++) {
+                out.putVarint(snapshots[i] - (i == 0 ? 0 : snapshots[i - 1]));
+            }
+            out.putInt(index);
+            return out.toByteArray();
+        }
+
+        private void record(byte type) {
+            out.put(type);
+            out.putVarint(tick - recorded);
+            recorded = tick;
+        }
+
+        private void snapshot() {
+            if (snapshotCount == snapshots.length) {
+                snapshots = Arrays.copyOf(snapshots, snapshotCount * 2);
+            }
+            snapshots[snapshotCount++] = out.size();
+            record(SNAPSHOT);
+            long seed = game.random.nextLong();
+            game.reseed(seed);
+            game.snake.body.sortFreeCells();
+            out.putVarint(zigzag(seed));
+            state.clear();
+            writeState(game, state);
+            out.putVarint(state.size());
+            out.put(state);
+        }
+    }
+
+    // The game as it was after the given number of ticks, resumed from the nearest snapshot before it
+    Game seek(int tick) {
+        if (tick < 0 || tick > ticks) {
+            throw new IllegalArgumentException("Tick " + tick + " is outside the recording of " + ticks + " ticks");
+        }
+        return play(Math.min(tick / snapshotEvery, snapshots.length - 1), tick);
+    }
+
+    // Replays the whole session, checking the game against every snapshot on the way
+    Game replay() {
+        return play(0, ticks);
+    }
+
+    private Game play(int snapshot, int until) {
+        ByteBuffer in = log.duplicate();
+        in.position(snapshots[snapshot]);
+        int tick = snapshot * snapshotEvery;
+        in.get();
+        getVarint(in);
+        long seed = unzigzag(getVarint(in));
+        int end = (int) getVarint(in) + in.position();
+        GameTime time = new GameTime();
+        Game game = readState(in, seed, time);
+        if (in.position() != end) {
+            throw new IllegalStateException("Corrupt snapshot at tick " + tick);
+        }
+
+        Bytes state = new Bytes();
+        while (true) {
+            byte type = in.get();
+            int at = tick + (int) getVarint(in);
+            // Keys of a tick are pressed before its update, so the ones at until are not part of it
+            if (type == END || at > until || type == KEY && at == until) {
+                for (; tick < until; tick++) {
+                    time.update(game);
+                }
+                return game;
+            }
+            for (; tick < at; tick++) {
+                time.update(game);
+            }
+            if (type == KEY) {
+                game.handleKeyPress((char) in.get());
+            } else {
+                seed = unzigzag(getVarint(in));
+                int length = (int) getVarint(in);
+                state.clear();
+                writeState(game, state);
+                if (!state.matches(in, length)) {
+                    throw new IllegalStateException("Replay diverged from the recording at tick " + tick);
+                }
+                in.position(in.position() + length);
+                game.reseed(seed);
+                game.snake.body.sortFreeCells();
+            }
+        }
+    }
+
+    private static void writeState(Game game, Bytes out) {
+        Snake snake = game.snake;
+        out.putVarint(zigzag(game.clock.getAsLong()));
+        out.putVarint(zigzag(game.lastBonusTime));
+        out.putVarint(game.time);
+        out.putVarint(game.foodEaten);
+        out.put((byte) ((game.paused ? 1 : 0) | (game.gameOver ? 2 : 0) | (game.bonusFood != null ? 4 : 0)));
+        out.putLong(Double.doubleToRawLongBits(snake.speed));
+        out.putVarint(snake.growing);
+        out.putVarint(snake.heading());
+        out.putVarint(snake.turnState());
+        // Segments as steps from the one before, mostly a single cell
+        out.putVarint(snake.body.size());
+        int x = 0;
+        int y = 0;
+        for (Coordinates segment : snake.body) {
+            out.putVarint(zigzag(segment.x - x));
+            out.putVarint(zigzag(segment.y - y));
+            x = segment.x;
+            y = segment.y;
+        }
+        out.putVarint(zigzag(game.food.position.x));
+        out.putVarint(zigzag(game.food.position.y));
+        if (game.bonusFood != null) {
+            out.put((byte) game.bonusFood.blockColor.ordinal());
+            out.putVarint(zigzag(game.bonusFood.position.x));
+            out.putVarint(zigzag(game.bonusFood.position.y));
+        }
+    }
+
+    private Game readState(ByteBuffer in, long seed, GameTime time) {
+        time.nanos = unzigzag(getVarint(in));
+        Game game = new Game(boardSize, difficulty.name(), new SplittableRandom(seed), time);
+        game.lastBonusTime = unzigzag(getVarint(in));
+        game.time = (int) getVarint(in);
+        game.foodEaten = (int) getVarint(in);
+        byte flags = in.get();
+        game.paused = (flags & 1) != 0;
+        game.gameOver = (flags & 2) != 0;
+
+        Snake snake = new Snake(boardSize);
+        snake.speed = Double.longBitsToDouble(in.getLong());
+        snake.growing = (int) getVarint(in);
+        snake.direction = Snake.DIRECTIONS[(int) getVarint(in)];
+        snake.restoreTurnState((int) getVarint(in));
+        snake.body.clear();
+        int x = 0;
+        int y = 0;
+        for (int i = (int) getVarint(in); i > 0; i--) {
+            x += (int) unzigzag(getVarint(in));
+            y += (int) unzigzag(getVarint(in));
+            snake.body.add(new Coordinates(x, y));
+        }
+        game.snake = snake;
+
+        game.food.position = new Coordinates((int) unzigzag(getVarint(in)), (int) unzigzag(getVarint(in)));
+        if ((flags & 4) != 0) {
+            game.bonusFood = new Food(BlockColor.values()[in.get()], game.random);
+            game.bonusFood.position = new Coordinates((int) unzigzag(getVarint(in)), (int) unzigzag(getVarint(in)));
+        }
+        // Placing the first food drew from the generator
+        game.reseed(seed);
+        snake.body.sortFreeCells();
+        return game;
+    }
+
+    private static long zigzag(long value) {
+        return value << 1 ^ value >> 63;
+    }
+
+    private static long unzigzag(long value) {
+        return value >>> 1 ^ -(value & 1);
+    }
+
+    private static long getVarint(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+    }
+
+    // Growable byte array written front to back
+    private static final class Bytes {
+        private byte[] bytes = new byte[256];
+        private int size;
+
+        void put(byte b) {
+            if (size == bytes.length) {
+                bytes = Arrays.copyOf(bytes, size * 2);
+            }
+            bytes[size++] = b;
+        }
+
+        void put(byte[] b) {
+            for (byte x : b) {
+                put(x);
+            }
+        }
+
+        void put(Bytes other) {
+            for (int i = 0; i < other.size; i++) {
+                put(other.bytes[i]);
+            }
+        }
+
+        void putVarint(long value) {
+            while ((value & ~0x7FL) != 0) {
+                put((byte) (value & 0x7F | 0x80));
+                value >>>= 7;
+            }
+            put((byte) value);
+        }
+
+        void putInt(int value) {
+            for (int shift = 24; shift >= 0; shift -= 8) {
+                put((byte) (value >>> shift));
+            }
+        }
+
+        void putLong(long value) {
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                put((byte) (value >>> shift));
+            }
+        }
+
+        // True if the next length bytes of in, left in place, are these bytes
+        boolean matches(ByteBuffer in, int length) {
+            if (length != size) {
+                return false;
+            }
+            for (int i = 0; i < size; i++) {
+                if (in.get(in.position() + i) != bytes[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        int size() {
+            return size;
+        }
+
+        void clear() {
+            size = 0;
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(bytes, size);
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        ReplayLog log = read(Files.readAllBytes(Paths.get(args[0])));
+        long start = System.nanoTime();
+        Game game = args.length > 1 ? log.seek(Integer.parseInt(args[1])) : log.replay();
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%d ticks on %d x %d, %s: length %d, food eaten %d%n", log.ticks, log.boardSize,
+                log.boardSize, log.difficulty.name().toLowerCase(), game.snake.body.size(), game.foodEaten);
+        System.out.printf("replayed %.1f s of game time in %.3f ms (%.0fx)%n", game.clock.getAsLong() / 1e9,
+                seconds * 1e3, game.clock.getAsLong() / 1e9 / seconds);
+    }
+}
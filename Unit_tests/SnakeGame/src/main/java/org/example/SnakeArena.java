@@ -0,0 +1,223 @@
+package org.example;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Plays SnakeGame headless, with a {@link Controller} pressing the keys, and aggregates the outcomes per
+ * controller, board size and difficulty. Games run the real rules through {@link Game#handleKeyPress}
+ * and {@link Game#updateGame()}; the golden bonus timer sees the game time the console loop would
+ * have reached at the snake's speed. Games are split across a fork/join pool; every batch gets its
+ * own split of the seed generator, so a seed gives the same statistics on any number of cores.
+ *
+ * <pre>
+ * java org.example.SnakeArena [games] [seed] [board sizes, e.g. 10,20] [controllers, e.g. greedy,bfs,hamiltonian]
+ * </pre>
+ */
+public final class SnakeArena {
+    // Keys that turn the snake to each direction code
+    private static final String KEYS = "wdsa";
+    // Games played sequentially by one fork/join task
+    private static final int BATCH = 32;
+
+    private SnakeArena() {
+    }
+
+    enum Outcome {
+        // Ran into a wall or itself
+        DIED,
+        // Covered the whole board
+        FILLED,
+        // Went boardSize^2 * 2 ticks without growing
+        STARVED
+    }
+
+    // Values of one measure over the games played, for percentiles
+    static final class Sample {
+        private int[] values = new int[64];
+        private int count;
+
+        void add(int value) {
+            if (count == values.length) {
+                values = Arrays.copyOf(values, count * 2);
+            }
+            values[count++] = value;
+        }
+
+        void addAll(Sample other) {
+            for (int i = 0; i < other.count; i++) {
+                add(other.values[i]);
+            }
+        }
+
+        int count() {
+            return count;
+        }
+
+        double mean() {
+            long sum = 0;
+            for (int i = 0; i < count; i++) {
+                sum += values[i];
+            }
+            return count == 0 ? 0 : (double) sum / count;
+        }
+
+        // Nearest-rank percentile, p in [0, 100]
+        int percentile(double p) {
+            if (count == 0) {
+                return 0;
+            }
+            int[] sorted = Arrays.copyOf(values, count);
+            Arrays.sort(sorted);
+            return sorted[Math.max(0, (int) Math.ceil(p / 100 * count) - 1)];
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%8.1f %6d %6d %6d %6d", mean(), percentile(10), percentile(50), percentile(90), percentile(100));
+        }
+    }
+
+    static final class Stats {
+        // Pieces of regular food eaten
+        final Sample score = new Sample();
+        final Sample length = new Sample();
+        final Sample ticks = new Sample();
+        final long[] outcomes = new long[Outcome.values().length];
+
+        void record(Game game, int ticks, Outcome outcome) {
+            score.add(game.foodEaten);
+            length.add(game.snake.body.size());
+            this.ticks.add(ticks);
+            outcomes[outcome.ordinal()]++;
+        }
+
+        Stats merge(Stats other) {
+            score.addAll(other.score);
+            length.addAll(other.length);
+            ticks.addAll(other.ticks);
+            for (int i = 0; i < outcomes.length; i++) {
+                outcomes[i] += other.outcomes[i];
+            }
+            return this;
+        }
+
+        int games() {
+            return score.count();
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder out = new StringBuilder();
+            out.append(String.format("games %d", games()));
+            for (Outcome outcome : Outcome.values()) {
+                out.append(String.format(", %s %d", outcome.name().toLowerCase(), outcomes[outcome.ordinal()]));
+            }
+            out.append(String.format("%n            mean    p10    p50    p90    max%n"));
+            out.append(String.format("score   %s%n", score));
+            out.append(String.format("length  %s%n", length));
+            out.append(String.format("ticks   %s%n", ticks));
+            return out.toString();
+        }
+    }
+
+    static Outcome play(Controller controller, int boardSize, Difficulty difficulty, SplittableRandom random, Stats stats) {
+        GameTime time = new GameTime();
+        Game game = new Game(boardSize, difficulty.name(), random, time);
+        long starvation = 2L * boardSize * boardSize;
+        int ticks = 0;
+        int sinceGrowth = 0;
+        int grown = game.snake.body.size() + game.snake.growing;
+        Outcome outcome;
+        while (true) {
+            if (game.gameOver) {
+                outcome = Outcome.DIED;
+                break;
+            }
+            if (game.snake.body.freeCells() == 0) {
+                outcome = Outcome.FILLED;
+                break;
+            }
+            if (sinceGrowth >= starvation) {
+                outcome = Outcome.STARVED;
+                break;
+            }
+            int direction = controller.steer(game);
+            if (direction >= 0 && direction != game.snake.heading()) {
+                game.handleKeyPress(KEYS.charAt(direction));
+            }
+            time.update(game);
+            ticks++;
+            int size = game.snake.body.size() + game.snake.growing;
+            sinceGrowth = size > grown ? 0 : sinceGrowth + 1;
+            grown = size;
+        }
+        stats.record(game, ticks, outcome);
+        return outcome;
+    }
+
+    static Stats simulate(String controller, int boardSize, Difficulty difficulty, int games,
+                          SplittableRandom random, ForkJoinPool pool) {
+        return pool.invoke(new Batch(controller, boardSize, difficulty, games, random));
+    }
+
+    private static final class Batch extends RecursiveTask<Stats> {
+        private static final long serialVersionUID = 1L;
+
+        private final String controller;
+        private final int boardSize;
+        private final Difficulty difficulty;
+        private final int games;
+        private final SplittableRandom random;
+
+        Batch(String controller, int boardSize, Difficulty difficulty, int games, SplittableRandom random) {
+            this.controller = controller;
+            this.boardSize = boardSize;
+            this.difficulty = difficulty;
+            this.games = games;
+            this.random = random;
+        }
+
+        @Override
+        protected Stats compute() {
+            if (games <= BATCH) {
+                Controller steering = Controller.named(controller, boardSize);
+                Stats stats = new Stats();
+                for (int i = 0; i < games; i++) {
+                    play(steering, boardSize, difficulty, random, stats);
+                }
+                return stats;
+            }
+            Batch left = new Batch(controller, boardSize, difficulty, games / 2, random.split());
+            left.fork();
+            Stats right = new Batch(controller, boardSize, difficulty, games - games / 2, random).compute();
+            return right.merge(left.join());
+        }
+    }
+
+    public static void main(String[] args) {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 1;
+        String[] sizes = (args.length > 2 ? args[2] : "10,20").split(",");
+        String[] controllers = (args.length > 3 ? args[3] : "greedy,bfs,hamiltonian").split(",");
+        for (String controller : controllers) {
+            for (String size : sizes) {
+                int boardSize = Integer.parseInt(size);
+                if (controller.equals("hamiltonian") && boardSize % 2 != 0) {
+                    System.out.printf("%s on %d x %d: needs an even board size%n%n", controller, boardSize, boardSize);
+                    continue;
+                }
+                for (Difficulty difficulty : Difficulty.values()) {
+                    long start = System.nanoTime();
+                    Stats stats = simulate(controller, boardSize, difficulty, games, new SplittableRandom(seed),
+                            ForkJoinPool.commonPool());
+                    double seconds = (System.nanoTime() - start) / 1e9;
+                    System.out.printf("%s on %d x %d, %s: %.0f games/s%n%s%n", controller, boardSize, boardSize,
+                            difficulty.name().toLowerCase(), games / seconds, stats);
+                }
+            }
+        }
+    }
+}
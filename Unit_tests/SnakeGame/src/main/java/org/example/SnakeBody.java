@@ -0,0 +1,200 @@
+package org.example;
+
+import java.util.AbstractList;
+import java.util.RandomAccess;
+import java.util.SplittableRandom;
+
+/**
+ * The snake's segments, head first, in a ring buffer with an {@link Occupancy} of the k x k board, so
+ * moving, growing and checking whether the head runs into the body take constant time. It is still a
+ * {@code List<Coordinates>}: changes made through the list keep the occupancy in step, and so does
+ * moving the head object itself ({@code body.get(0).x = 5}), which is picked up before every move and
+ * collision check. Segments outside the board are kept but not counted. The occupancy also picks the
+ * free cells food is placed on.
+ */
+final class SnakeBody extends AbstractList<Coordinates> implements RandomAccess {
+    private final int boardSize;
+    private final Occupancy occupancy;
+    private Coordinates[] segments = new Coordinates[16];
+    // Cell each segment was counted on, or -1 if it was off the board
+    private int[] cells = new int[16];
+    private int first;
+    private int size;
+
+    SnakeBody(int boardSize) {
+        this(boardSize, Occupancy.forBoard(boardSize));
+    }
+
+    SnakeBody(int boardSize, Occupancy occupancy) {
+        this.boardSize = boardSize;
+        this.occupancy = occupancy;
+    }
+
+    @Override
+    public Coordinates get(int index) {
+        return segments[slot(checkIndex(index, size))];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Coordinates set(int index, Coordinates segment) {
+        int slot = slot(checkIndex(index, size));
+        Coordinates previous = segments[slot];
+        vacate(cells[slot]);
+        segments[slot] = segment;
+        cells[slot] = occupy(segment);
+        return previous;
+    }
+
+    @Override
+    public void add(int index, Coordinates segment) {
+        checkIndex(index, size + 1);
+        if (size == segments.length) {
+            resize(segments.length * 2);
+        }
+        if (index == 0) {
+            first = slot(segments.length - 1);
+        } else {
+            for (int i = size; i > index; i--) {
+                segments[slot(i)] = segments[slot(i - 1)];
+                cells[slot(i)] = cells[slot(i - 1)];
+            }
+        }
+        size++;
+        segments[slot(index)] = segment;
+        cells[slot(index)] = occupy(segment);
+        modCount++;
+    }
+
+    @Override
+    public Coordinates remove(int index) {
+        int slot = slot(checkIndex(index, size));
+        Coordinates removed = segments[slot];
+        vacate(cells[slot]);
+        if (index == 0) {
+            segments[slot] = null;
+            first = slot(1);
+        } else {
+            for (int i = index; i < size - 1; i++) {
+                segments[slot(i)] = segments[slot(i + 1)];
+                cells[slot(i)] = cells[slot(i + 1)];
+            }
+            segments[slot(size - 1)] = null;
+        }
+        size--;
+        modCount++;
+        return removed;
+    }
+
+    @Override
+    public void clear() {
+        while (size > 0) {
+            remove(size - 1);
+        }
+    }
+
+    // Moves the snake one cell without growing: the tail's slot is released and the new head at (x, y) is
+    // written to the ring slot before the old head, so nothing shifts. That is the tail's slot only when
+    // the ring is full. The head is a new object, as callers may hold on to the segments, which are mutable
+    void advance(int x, int y) {
+        syncHead();
+        int tail = slot(size - 1);
+        vacate(cells[tail]);
+        segments[tail] = null;
+        first = slot(segments.length - 1);
+        Coordinates head = new Coordinates(x, y);
+        segments[first] = head;
+        cells[first] = occupy(head);
+        modCount++;
+    }
+
+    Coordinates head() {
+        syncHead();
+        return segments[first];
+    }
+
+    // True if the head shares its cell with another segment
+    boolean headOverlaps() {
+        syncHead();
+        int cell = cells[first];
+        return cell >= 0 && occupancy.count(cell) > 1;
+    }
+
+    boolean isOccupied(int x, int y) {
+        int cell = cell(x, y);
+        return cell >= 0 && occupancy.count(cell) > 0;
+    }
+
+    int freeCells() {
+        return occupancy.freeCells();
+    }
+
+    // See Occupancy.canonicalize
+    void sortFreeCells() {
+        syncHead();
+        occupancy.canonicalize();
+    }
+
+    /**
+     * Returns a uniformly random cell not covered by the snake and other than {@code avoid} (the
+     * other food, may be null), or null if there is none.
+     */
+    Coordinates randomFreeCell(SplittableRandom random, Coordinates avoid) {
+        syncHead();
+        int cell = occupancy.randomFree(random, avoid == null ? -1 : cell(avoid.x, avoid.y));
+        return cell < 0 ? null : new Coordinates(cell % boardSize, cell / boardSize);
+    }
+
+    // Re-counts the head if it was moved in place since it was added
+    private void syncHead() {
+        if (size > 0 && cells[first] != cell(segments[first].x, segments[first].y)) {
+            vacate(cells[first]);
+            cells[first] = occupy(segments[first]);
+        }
+    }
+
+    private int occupy(Coordinates segment) {
+        int cell = cell(segment.x, segment.y);
+        if (cell >= 0) {
+            occupancy.add(cell);
+        }
+        return cell;
+    }
+
+    private void vacate(int cell) {
+        if (cell >= 0) {
+            occupancy.remove(cell);
+        }
+    }
+
+    private int cell(int x, int y) {
+        return x < 0 || y < 0 || x >= boardSize || y >= boardSize ? -1 : y * boardSize + x;
+    }
+
+    private int slot(int index) {
+        return (first + index) & (segments.length - 1);
+    }
+
+    private void resize(int capacity) {
+        Coordinates[] newSegments = new Coordinates[capacity];
+        int[] newCells = new int[capacity];
+        for (int i = 0; i < size; i++) {
+            newSegments[i] = segments[slot(i)];
+            newCells[i] = cells[slot(i)];
+        }
+        segments = newSegments;
+        cells = newCells;
+        first = 0;
+    }
+
+    private static int checkIndex(int index, int bound) {
+        if (index < 0 || index >= bound) {
+            throw new IndexOutOfBoundsException("Index: " + index);
+        }
+        return index;
+    }
+}
@@ -3,7 +3,11 @@ package org.example;
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.*;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
@@ -33,8 +37,11 @@ import java.awt.event.*;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 import java.util.Random;
 import java.util.Scanner;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -74,48 +81,149 @@ class Coordinates {
     }
 }
 
+enum BlockColor {
+    GREEN, RED, BLUE, GOLD;
+
+    // Any case, "golden" for GOLD; names that are no color give the fallback
+    static BlockColor of(String name, BlockColor fallback) {
+        String upper = name.toUpperCase(Locale.ROOT);
+        if (upper.equals("GOLDEN")) {
+            return GOLD;
+        }
+        for (BlockColor color : values()) {
+            if (color.name().equals(upper)) {
+                return color;
+            }
+        }
+        return fallback;
+    }
+}
+
+enum Difficulty {
+    EASY(0.5), HARD(2.0);
+
+    // Initial speed in blocks per second
+    final double speed;
+
+    Difficulty(double speed) {
+        this.speed = speed;
+    }
+
+    // Anything but "easy" plays hard
+    static Difficulty of(String name) {
+        return name.equalsIgnoreCase("easy") ? EASY : HARD;
+    }
+}
+
 class Snake {
-    List<Coordinates> body;
+    // Direction codes, clockwise from up, so the opposite of d is d ^ 2
+    static final int UP = 0;
+    static final int RIGHT = 1;
+    static final int DOWN = 2;
+    static final int LEFT = 3;
+    static final int[] DX = {0, 1, 0, -1};
+    static final int[] DY = {-1, 0, 1, 0};
+    static final String[] DIRECTIONS = {"UP", "RIGHT", "DOWN", "LEFT"};
+    private static final int MAX_TURNS = 3;
+
+    SnakeBody body;
+    // Name of the direction; assigning it directly also turns the snake
     String direction;
     double speed;
     int growing;
     String color;
-
-    Snake() {
-        this.body = new ArrayList<>();
+    final BlockColor blockColor;
+    private int heading;
+    // The direction string heading was decoded from
+    private String decoded;
+    // Turns pressed after the one already taken since the last move, applied one per move so two
+    // quick turns are not collapsed into one
+    private final int[] turns = new int[MAX_TURNS];
+    private int queued;
+    private boolean turned;
+
+    Snake(int boardSize) {
+        this.body = new SnakeBody(boardSize);
         this.body.add(new Coordinates(0, 0));
-        this.direction = "UP";
-        this.color = "GREEN";
+        setHeading(UP);
+        this.blockColor = BlockColor.GREEN;
+        this.color = blockColor.name();
         this.growing = 0;
     }
 
     void move() {
-        Coordinates head = body.get(0);
-        Coordinates newHead;
-
-        switch (direction) {
-            case "UP":
-                newHead = new Coordinates(head.x, head.y - 1);
-                break;
-            case "DOWN":
-                newHead = new Coordinates(head.x, head.y + 1);
-                break;
-            case "LEFT":
-                newHead = new Coordinates(head.x - 1, head.y);
-                break;
-            case "RIGHT":
-                newHead = new Coordinates(head.x + 1, head.y);
-                break;
-            default:
-                newHead = new Coordinates(head.x, head.y - 1);
-        }
-
-        body.add(0, newHead);
+        int d = heading();
+        Coordinates head = body.head();
+        int x = head.x + DX[d];
+        int y = head.y + DY[d];
 
         if (growing > 0) {
             growing--;
+            body.add(0, new Coordinates(x, y));
         } else {
-            body.remove(body.size() - 1);
+            body.advance(x, y);
+        }
+
+        turned = queued > 0;
+        if (turned) {
+            setHeading(turns[0]);
+            queued--;
+            System.arraycopy(turns, 1, turns, 0, queued);
+        }
+    }
+
+    // Ignores turns that repeat or reverse the direction the snake will have by then
+    void turn(int code) {
+        int last = queued == 0 ? heading() : turns[queued - 1];
+        if (code == last || code == (last ^ 2)) {
+            return;
+        }
+        if (!turned) {
+            setHeading(code);
+            turned = true;
+        } else if (queued < MAX_TURNS) {
+            turns[queued++] = code;
+        }
+    }
+
+    // The turn buffer packed into an int for snapshots: the turned flag, the number of queued turns,
+    // then two bits per queued turn
+    int turnState() {
+        int state = (turned ? 1 : 0) | queued << 1;
+        for (int i = 0; i < queued; i++) {
+            state |= turns[i] << (3 + 2 * i);
+        }
+        return state;
+    }
+
+    void restoreTurnState(int state) {
+        turned = (state & 1) != 0;
+        queued = state >>> 1 & 3;
+        for (int i = 0; i < queued; i++) {
+            turns[i] = state >>> (3 + 2 * i) & 3;
+        }
+    }
+
+    // Decodes direction again only when a different string was assigned to it
+    int heading() {
+        if (direction != decoded) {
+            heading = decode(direction);
+            decoded = direction;
+        }
+        return heading;
+    }
+
+    private void setHeading(int code) {
+        heading = code;
+        direction = decoded = DIRECTIONS[code];
+    }
+
+    static int decode(String direction) {
+        switch (direction) {
+            case "RIGHT": return RIGHT;
+            case "DOWN": return DOWN;
+            case "LEFT": return LEFT;
+            default: return UP;
         }
     }
 
@@ -135,16 +243,37 @@ class Snake {
 class Food {
     Coordinates position;
     String color;
+    final BlockColor blockColor;
+    SplittableRandom random;
 
     Food(String color) {
+        this(color, new SplittableRandom());
+    }
+
+    // Keeps the name as given; unknown names are drawn as regular food
+    Food(String color, SplittableRandom random) {
+        this(BlockColor.of(color, BlockColor.RED), random);
         this.color = color;
+    }
+
+    Food(BlockColor blockColor, SplittableRandom random) {
+        this.blockColor = blockColor;
+        this.color = blockColor.name();
+        this.random = random;
         this.position = new Coordinates(0, 0);
     }
 
     void generateNewPosition(int boardSize) {
-        Random random = new Random();
         this.position = new Coordinates(random.nextInt(boardSize), random.nextInt(boardSize));
     }
+
+    // Moves to a cell free of the snake and the other food; stays put if the board is full
+    void generateNewPosition(SnakeBody body, Food other) {
+        Coordinates cell = body.randomFreeCell(random, other == null ? null : other.position);
+        if (cell != null) {
+            this.position = cell;
+        }
+    }
 }
 
 class Board {
@@ -173,29 +302,42 @@ class Game {
     Food bonusFood;
     boolean paused;
     String difficulty;
+    Difficulty level;
     int time;
     boolean gameOver;
     Board board;
     int foodEaten;
+    // Reading of clock when the last golden bonus spawned
     long lastBonusTime;
+    // Shared by all food of this game; split() it to seed games running in parallel
+    SplittableRandom random;
+    // Monotonic nanoseconds for the golden bonus timer; the game loop passes its game time
+    final LongSupplier clock;
 
     Game(int boardSize, String difficulty) {
+        this(boardSize, difficulty, new SplittableRandom());
+    }
+
+    Game(int boardSize, String difficulty, SplittableRandom random) {
+        this(boardSize, difficulty, random, System::nanoTime);
+    }
+
+    Game(int boardSize, String difficulty, SplittableRandom random, LongSupplier clock) {
+        this.random = random;
+        this.clock = clock;
         this.board = new Board(boardSize);
-        this.snake = new Snake();
-        this.food = new Food("RED");
-        this.food.generateNewPosition(boardSize);
+        this.snake = new Snake(boardSize);
+        this.food = new Food(BlockColor.RED, random);
+        this.food.generateNewPosition(snake.body, null);
         this.difficulty = difficulty;
         this.paused = false;
         this.time = 0;
         this.gameOver = false;
         this.foodEaten = 0;
-        this.lastBonusTime = System.currentTimeMillis();
+        this.lastBonusTime = clock.getAsLong();
 
-        if (difficulty.equalsIgnoreCase("easy")) {
-            snake.speed = 0.5;
-        } else {
-            snake.speed = 2.0;
-        }
+        this.level = Difficulty.of(difficulty);
+        snake.speed = level.speed;
     }
 
     void updateGame() {
@@ -212,12 +354,12 @@ class Game {
         if (head.equals(food.position)) {
             snake.grow(1);
             snake.increaseSpeed();
-            food.generateNewPosition(board.size);
+            food.generateNewPosition(snake.body, bonusFood);
             foodEaten++;
 
             // Check for bonus food spawn
             if (foodEaten % 10 == 0) {
-                spawnBonusFood("BLUE");
+                spawnBonusFood(BlockColor.BLUE);
             }
         }
 
@@ -228,9 +370,9 @@ class Game {
         }
 
         // Check for golden bonus spawn (every 5 minutes)
-        long currentTime = System.currentTimeMillis();
-        if (currentTime - lastBonusTime >= 5 * 60 * 1000) {
-            spawnBonusFood("GOLD");
+        long currentTime = clock.getAsLong();
+        if (currentTime - lastBonusTime >= TimeUnit.MINUTES.toNanos(5)) {
+            spawnBonusFood(BlockColor.GOLD);
             lastBonusTime = currentTime;
         }
 
@@ -239,7 +381,7 @@ class Game {
     }
 
     void checkCollisions() {
-        Coordinates head = snake.body.get(0);
+        Coordinates head = snake.body.head();
 
         // Check wall collision
         if (head.x < 0 || head.x >= board.size || head.y < 0 || head.y >= board.size) {
@@ -248,11 +390,8 @@ class Game {
         }
 
         // Check self collision
-        for (int i = 1; i < snake.body.size(); i++) {
-            if (head.equals(snake.body.get(i))) {
-                gameOver = true;
-                return;
-            }
+        if (snake.body.headOverlaps()) {
+            gameOver = true;
         }
     }
 
@@ -267,50 +406,64 @@ class Game {
         switch (key) {
             case 'w':
             case 'W':
-                if (!snake.direction.equals("DOWN")) snake.direction = "UP";
+                snake.turn(Snake.UP);
                 break;
             case 's':
             case 'S':
-                if (!snake.direction.equals("UP")) snake.direction = "DOWN";
+                snake.turn(Snake.DOWN);
                 break;
             case 'a':
             case 'A':
-                if (!snake.direction.equals("RIGHT")) snake.direction = "LEFT";
+                snake.turn(Snake.LEFT);
                 break;
             case 'd':
             case 'D':
-                if (!snake.direction.equals("LEFT")) snake.direction = "RIGHT";
+                snake.turn(Snake.RIGHT);
                 break;
         }
     }
 
+    // Keeps the name as given; unknown names make a blue bonus
     void spawnBonusFood(String foodColor) {
         if (bonusFood == null) {
-            bonusFood = new Food(foodColor);
-            bonusFood.generateNewPosition(board.size);
+            spawnBonusFood(BlockColor.of(foodColor, BlockColor.BLUE));
+            bonusFood.color = foodColor;
+        }
+    }
+
+    void spawnBonusFood(BlockColor foodColor) {
+        if (bonusFood == null) {
+            bonusFood = new Food(foodColor, random);
+            bonusFood.generateNewPosition(snake.body, food);
 
-            if (foodColor.equals("GOLD")) {
+            if (foodColor == BlockColor.GOLD) {
                 // Golden food decreases speed
                 snake.decreaseSpeed();
             }
         }
     }
 
+    // Restarts the food generator from a seed, so a recorded session can be resumed from a snapshot
+    void reseed(long seed) {
+        random = new SplittableRandom(seed);
+        food.random = random;
+        if (bonusFood != null) {
+            bonusFood.random = random;
+        }
+    }
+
     void resetGame() {
-        this.snake = new Snake();
-        this.food = new Food("RED");
-        this.food.generateNewPosition(board.size);
+        this.snake = new Snake(board.size);
+        this.food = new Food(BlockColor.RED, random);
+        this.food.generateNewPosition(snake.body, null);
         this.bonusFood = null;
         this.paused = false;
         this.gameOver = false;
         this.foodEaten = 0;
-        this.lastBonusTime = System.currentTimeMillis();
+        this.lastBonusTime = clock.getAsLong();
 
-        if (difficulty.equalsIgnoreCase("easy")) {
-            snake.speed = 0.5;
-        } else {
-            snake.speed = 2.0;
-        }
+        this.level = Difficulty.of(difficulty);
+        snake.speed = level.speed;
     }
 }
 
@@ -324,35 +477,50 @@ public class SnakeGame {
         System.out.print("Enter difficulty (easy/hard): ");
         String difficulty = scanner.next();
 
-        Game game = new Game(boardSize, difficulty);
+        // Frames drawn per second, independent of the snake's speed
+        int frameCap = Integer.getInteger("snake.fps", 30);
+        GameLoop loop = new GameLoop(GameLoop.SYSTEM, GameLoop.perSecond(frameCap), GameLoop.Policy.CATCH_UP, 5);
+        Game game = new Game(boardSize, difficulty, new SplittableRandom(), loop::gameTimeNanos);
 
         System.out.println("Game started! Use W, A, S, D to control the snake. Press P to pause.");
 
-        // Simple console-based game loop
-        while (!game.gameOver) {
-            if (System.in.available() > 0) {
-                char key = (char) System.in.read();
-                game.handleKeyPress(key);
-            }
-
-            game.updateGame();
-            game.board.render(game.snake, game.food, game.bonusFood);
-
-            try {
-                long sleepTime = (long) (1000 / game.snake.speed);
-                Thread.sleep(sleepTime);
-            } catch (InterruptedException e) {
-                e.printStackTrace();
+        // From here on keys are read by the input thread, including the play-again answer
+        KeyEvents keys = new KeyEvents(64);
+        KeyEvents.startReader(System.in, keys);
+        DiffRenderer renderer = new DiffRenderer(new FileOutputStream(FileDescriptor.out).getChannel(), boardSize);
+        // Directory to record every game to, for replaying with ReplayLog
+        String recordTo = System.getProperty("snake.record");
+
+        for (int played = 1; ; played++) {
+            ReplayLog.Recorder recorder = recordTo == null ? null : new ReplayLog.Recorder(game, 1000);
+            // The snake's speed is in moves per second; the board is redrawn at most frameCap times a second
+            loop.run(() -> GameLoop.perSecond(game.snake.speed), () -> {
+                keys.drain(System.nanoTime(), (key, time) -> {
+                    if (recorder != null) {
+                        recorder.key(key);
+                    }
+                    game.handleKeyPress(key);
+                });
+                game.updateGame();
+                if (recorder != null) {
+                    recorder.tick();
+                }
+            }, () -> renderer.render(game), () -> !game.gameOver);
+            renderer.render(game);
+            renderer.finish();
+            if (recorder != null) {
+                Files.write(Paths.get(recordTo, "game-" + played + ".snakelog"), recorder.finish());
             }
 
-            if (game.gameOver) {
-                System.out.println("Game Over! Final score: " + game.snake.body.size());
-                System.out.print("Play again? (y/n): ");
-                char choice = scanner.next().charAt(0);
-                if (choice == 'y' || choice == 'Y') {
-                    game.resetGame();
-                }
+            System.out.println("Game Over! Final score: " + game.snake.body.size());
+            System.out.println(loop.metrics() + ", dropped keys " + keys.dropped()
+                    + ", cells drawn " + renderer.cellsWritten() + " in " + renderer.frames() + " frames");
+            System.out.print("Play again? (y/n): ");
+            char choice = keys.take();
+            if (choice != 'y' && choice != 'Y') {
+                break;
             }
+            game.resetGame();
         }
 
         scanner.close();
@@ -0,0 +1,336 @@
+package org.example;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hosts many independent games, one per loopback TCP connection. One selector thread accepts
+ * connections and reads key presses into each session's {@link KeyEvents}; a small shared pool ticks
+ * every session at its own snake's speed, each tick scheduling the next from its deadline rather
+ * than from when it ran, so a session does not drift when others delay it. A session more than one
+ * tick behind skips the missed ticks, like {@link GameLoop.Policy#SKIP}.
+ *
+ * <p>Protocol, one line each way per message:
+ * <pre>
+ * client: START &lt;board size&gt; &lt;easy|hard&gt;    then every byte but CR and LF is a key press
+ * server: OK &lt;session&gt;
+ *         &lt;tick&gt; &lt;head x&gt; &lt;head y&gt; &lt;length&gt;   after every tick
+ *         OVER &lt;tick&gt; &lt;length&gt;               when the snake dies; the game then restarts
+ * </pre>
+ * Closing the connection ends the session. The host records how late every tick started and how long
+ * it took, across all sessions and as each session's own 99th percentile.
+ *
+ * <pre>
+ * java org.example.SnakeServer [sessions, e.g. 100,1000] [seconds] [tick threads] [speed scale]
+ * </pre>
+ * runs the host and a {@link LoadClient} in one process. Each session takes two file descriptors.
+ */
+public final class SnakeServer implements Closeable {
+    // Keeps one session's boards to about 100 KB
+    static final int MAX_BOARD = 100;
+    private static final int KEY_CAPACITY = 64;
+    private static final int OUT_CAPACITY = 4096;
+
+    private final ServerSocketChannel server;
+    private final Selector selector;
+    private final ScheduledThreadPoolExecutor ticker;
+    // Multiplies every snake's speed, to load the host harder than real play would
+    private final double speedScale;
+    private final Thread io;
+    private final Map<Integer, Session> live = new ConcurrentHashMap<>();
+    private final AtomicInteger nextId = new AtomicInteger();
+    private volatile boolean closed;
+
+    // Totals of the sessions that have ended, guarded by this
+    private final LatencyHistogram lateness = new LatencyHistogram();
+    private final LatencyHistogram service = new LatencyHistogram();
+    private final LatencyHistogram sessionP99 = new LatencyHistogram();
+    private long skipped;
+    private long games;
+    private long droppedLines;
+
+    SnakeServer(int tickThreads, double speedScale) throws IOException {
+        this.speedScale = speedScale;
+        server = ServerSocketChannel.open();
+        server.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 1024);
+        server.configureBlocking(false);
+        selector = Selector.open();
+        server.register(selector, SelectionKey.OP_ACCEPT);
+        AtomicInteger threads = new AtomicInteger();
+        ticker = new ScheduledThreadPoolExecutor(tickThreads, task -> {
+            Thread thread = new Thread(task, "snake-tick-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        io = new Thread(this::serve, "snake-host-io");
+        io.setDaemon(true);
+        io.start();
+    }
+
+    int port() {
+        return server.socket().getLocalPort();
+    }
+
+    int liveSessions() {
+        return live.size();
+    }
+
+    private void serve() {
+        ByteBuffer in = ByteBuffer.allocate(4096);
+        try {
+            while (!closed) {
+                selector.select();
+                Iterator<SelectionKey> ready = selector.selectedKeys().iterator();
+                while (ready.hasNext()) {
+                    SelectionKey key = ready.next();
+                    ready.remove();
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    if (key.isAcceptable()) {
+                        accept();
+                    } else if (key.isReadable()) {
+                        read(key, in);
+                    }
+                }
+            }
+        } catch (IOException | ClosedSelectorException e) {
+            if (!closed) {
+                System.err.println("Host stopped: " + e);
+            }
+        }
+    }
+
+    private void accept() throws IOException {
+        for (SocketChannel channel = server.accept(); channel != null; channel = server.accept()) {
+            channel.configureBlocking(false);
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            channel.register(selector, SelectionKey.OP_READ, new Session(nextId.incrementAndGet(), channel));
+        }
+    }
+
+    private void read(SelectionKey key, ByteBuffer in) {
+        Session session = (Session) key.attachment();
+        in.clear();
+        int read;
+        try {
+            read = session.channel.read(in);
+        } catch (IOException e) {
+            read = -1;
+        }
+        if (read < 0) {
+            key.cancel();
+            session.close();
+            return;
+        }
+        in.flip();
+        session.receive(in, System.nanoTime());
+    }
+
+    // Called from a tick, or from close() once no tick can run
+    private void retire(Session session) {
+        if (live.remove(session.id) == null) {
+            return;
+        }
+        synchronized (this) {
+            lateness.merge(session.lateness);
+            service.merge(session.service);
+            sessionP99.record(session.lateness.percentile(99));
+            skipped += session.skipped;
+            games += session.games;
+            droppedLines += session.droppedLines;
+        }
+    }
+
+    // Summary of the sessions that have ended; close() ends them all
+    synchronized String report() {
+        return String.format("%d sessions, %d ticks, %d skipped, %d games, %d lines dropped%n"
+                        + "  tick lateness:          %s%n"
+                        + "  tick time:              %s%n"
+                        + "  p99 lateness, sessions: %s",
+                sessionP99.count(), lateness.count(), skipped, games, droppedLines, lateness, service, sessionP99);
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        ticker.shutdownNow();
+        try {
+            ticker.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        selector.close();
+        server.close();
+        for (Session session : new ArrayList<>(live.values())) {
+            session.close();
+            retire(session);
+        }
+    }
+
+    private final class Session {
+        final int id;
+        final SocketChannel channel;
+        final KeyEvents keys = new KeyEvents(KEY_CAPACITY);
+        final LatencyHistogram lateness = new LatencyHistogram();
+        final LatencyHistogram service = new LatencyHistogram();
+        final Runnable tick = this::tick;
+        private final StringBuilder line = new StringBuilder();
+        private final ByteBuffer out = ByteBuffer.allocate(OUT_CAPACITY);
+        private final GameTime time = new GameTime();
+        // Set once by the selector thread, before the first tick is scheduled
+        private Game game;
+        private long deadline;
+        private long ticks;
+        long skipped;
+        long games;
+        long droppedLines;
+        private volatile boolean closed;
+
+        Session(int id, SocketChannel channel) {
+            this.id = id;
+            this.channel = channel;
+        }
+
+        // Called from the selector thread only
+        void receive(ByteBuffer in, long now) {
+            while (in.hasRemaining()) {
+                char c = (char) (in.get() & 0xFF);
+                if (game != null) {
+                    if (c != '\n' && c != '\r') {
+                        keys.offer(c, now);
+                    }
+                } else if (c == '\n') {
+                    start(line.toString().trim());
+                    if (closed) {
+                        return;
+                    }
+                } else if (line.length() < 80) {
+                    line.append(c);
+                }
+            }
+        }
+
+        private void start(String request) {
+            String[] words = request.split("\\s+");
+            int size = words.length == 3 && words[0].equals("START") && words[1].matches("\\d{1,4}")
+                    ? Integer.parseInt(words[1]) : -1;
+            if (size < 2 || size > MAX_BOARD) {
+                send("ERR expected START <2.." + MAX_BOARD + "> <easy|hard>");
+                close();
+                return;
+            }
+            game = new Game(size, words[2], new SplittableRandom(), time);
+            live.put(id, this);
+            send("OK " + id);
+            deadline = System.nanoTime() + step();
+            ticker.schedule(tick, step(), TimeUnit.NANOSECONDS);
+        }
+
+        private long step() {
+            return GameLoop.perSecond(game.snake.speed * speedScale);
+        }
+
+        private void tick() {
+            if (closed) {
+                retire(this);
+                return;
+            }
+            long start = System.nanoTime();
+            lateness.record(start - deadline);
+            try {
+                keys.drain(start, (key, at) -> game.handleKeyPress(key));
+                long step = step();
+                time.update(game);
+                ticks++;
+                if (game.gameOver) {
+                    send("OVER " + ticks + " " + game.snake.body.size());
+                    game.resetGame();
+                    games++;
+                } else {
+                    Coordinates head = game.snake.body.head();
+                    send(ticks + " " + head.x + " " + head.y + " " + game.snake.body.size());
+                }
+                deadline += step;
+            } catch (RuntimeException e) {
+                System.err.println("Session " + id + " failed: " + e);
+                close();
+                retire(this);
+                return;
+            }
+            long now = System.nanoTime();
+            service.record(now - start);
+            long behind = now - deadline;
+            long step = step();
+            if (behind > step) {
+                skipped += behind / step;
+                deadline += behind / step * step;
+            }
+            if (!ticker.isShutdown()) {
+                ticker.schedule(tick, deadline - now, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        // Lines that do not fit behind unsent ones are dropped rather than blocking the tick
+        private synchronized void send(String message) {
+            if (out.remaining() < message.length() + 1) {
+                droppedLines++;
+            } else {
+                out.put(message.getBytes(StandardCharsets.US_ASCII)).put((byte) '\n');
+            }
+            out.flip();
+            try {
+                channel.write(out);
+            } catch (IOException e) {
+                close();
+            }
+            out.compact();
+        }
+
+        void close() {
+            closed = true;
+            try {
+                channel.close();
+            } catch (IOException e) {
+                // Nothing left to tell the client
+            }
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        String[] counts = (args.length > 0 ? args[0] : "100,400").split(",");
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        double speedScale = args.length > 3 ? Double.parseDouble(args[3]) : 1;
+        for (String count : counts) {
+            int sessions = Integer.parseInt(count);
+            SnakeServer host = new SnakeServer(threads, speedScale);
+            String traffic;
+            try (LoadClient client = new LoadClient(host.port(), sessions, 20, "hard", new SplittableRandom(1))) {
+                traffic = client.run(TimeUnit.SECONDS.toNanos(seconds));
+            } finally {
+                host.close();
+            }
+            System.out.printf("%d sessions on %d tick threads at %.1fx speed, %d s: %s%n%s%n%n", sessions,
+                    threads, speedScale, seconds, traffic, host.report());
+        }
+    }
+}
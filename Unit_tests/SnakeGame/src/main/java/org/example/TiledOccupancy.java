@@ -0,0 +1,220 @@
+package org.example;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Occupancy of a huge board in 64 x 64 tiles, each a bitset of one long per row, allocated when a
+ * segment first lands on the tile and dropped when the last one leaves, so memory follows the snake's
+ * length rather than k^2. Cells covered more than once, which only happens once the snake has run into
+ * itself, are counted in a side map. Free cells are drawn by rejection sampling, which takes one or two
+ * tries while the snake covers a small part of the board; after 64 misses the free cells are counted
+ * tile by tile instead.
+ */
+final class TiledOccupancy implements Occupancy {
+    private static final int TILE_BITS = 6;
+    private static final int TILE = 1 << TILE_BITS;
+    private static final int TRIES = 64;
+
+    private final int size;
+    private final int tilesPerRow;
+    // Open addressing from tile index + 1 (0 = empty slot) to its rows; row TILE holds the set bits
+    private int[] keys = new int[16];
+    private long[][] tiles = new long[16][];
+    private int tileCount;
+    // Segments beyond the first on cells covered more than once
+    private final Map<Integer, Integer> extra = new HashMap<>();
+    private int occupied;
+
+    TiledOccupancy(int size) {
+        this.size = size;
+        this.tilesPerRow = (size + TILE - 1) >> TILE_BITS;
+    }
+
+    @Override
+    public void add(int cell) {
+        int x = cell % size;
+        int y = cell / size;
+        long[] tile = findOrCreate(tileOf(x, y));
+        long bit = 1L << (x & (TILE - 1));
+        int row = y & (TILE - 1);
+        if ((tile[row] & bit) != 0) {
+            extra.merge(cell, 1, Integer::sum);
+            return;
+        }
+        tile[row] |= bit;
+        tile[TILE]++;
+        occupied++;
+    }
+
+    @Override
+    public void remove(int cell) {
+        int x = cell % size;
+        int y = cell / size;
+        int key = tileOf(x, y);
+        long[] tile = find(key);
+        long bit = 1L << (x & (TILE - 1));
+        int row = y & (TILE - 1);
+        if (tile == null || (tile[row] & bit) == 0) {
+            return;
+        }
+        if (!extra.isEmpty()) {
+            Integer more = extra.remove(cell);
+            if (more != null) {
+                if (more > 1) {
+                    extra.put(cell, more - 1);
+                }
+                return;
+            }
+        }
+        tile[row] &= ~bit;
+        occupied--;
+        if (--tile[TILE] == 0) {
+            drop(key);
+        }
+    }
+
+    @Override
+    public int count(int cell) {
+        int x = cell % size;
+        int y = cell / size;
+        long[] tile = find(tileOf(x, y));
+        if (tile == null || (tile[y & (TILE - 1)] & 1L << (x & (TILE - 1))) == 0) {
+            return 0;
+        }
+        return extra.isEmpty() ? 1 : 1 + extra.getOrDefault(cell, 0);
+    }
+
+    @Override
+    public int freeCells() {
+        return size * size - occupied;
+    }
+
+    @Override
+    public int randomFree(SplittableRandom random, int avoid) {
+        boolean avoidFree = avoid >= 0 && count(avoid) == 0;
+        int free = freeCells() - (avoidFree ? 1 : 0);
+        if (free <= 0) {
+            return -1;
+        }
+        for (int i = 0; i < TRIES; i++) {
+            int cell = random.nextInt(size * size);
+            if (cell != avoid && count(cell) == 0) {
+                return cell;
+            }
+        }
+        return nthFree(random.nextInt(free), avoidFree ? avoid : -1);
+    }
+
+    @Override
+    public void canonicalize() {
+        // Draws already depend only on which cells are free
+    }
+
+    int tiles() {
+        return tileCount;
+    }
+
+    // The nth free cell in tile order, then row order within the tile, skipping avoid
+    private int nthFree(int n, int avoid) {
+        int avoidTile = avoid < 0 ? -1 : tileOf(avoid % size, avoid / size);
+        for (int ty = 0; ty < tilesPerRow; ty++) {
+            int height = Math.min(TILE, size - (ty << TILE_BITS));
+            for (int tx = 0; tx < tilesPerRow; tx++) {
+                int width = Math.min(TILE, size - (tx << TILE_BITS));
+                int key = ty * tilesPerRow + tx;
+                long[] tile = find(key);
+                int tileFree = width * height - (tile == null ? 0 : (int) tile[TILE]) - (key == avoidTile ? 1 : 0);
+                if (n >= tileFree) {
+                    n -= tileFree;
+                    continue;
+                }
+                for (int row = 0; row < height; row++) {
+                    for (int column = 0; column < width; column++) {
+                        int cell = ((ty << TILE_BITS) + row) * size + (tx << TILE_BITS) + column;
+                        boolean taken = tile != null && (tile[row] & 1L << column) != 0;
+                        if (!taken && cell != avoid && n-- == 0) {
+                            return cell;
+                        }
+                    }
+                }
+            }
+        }
+        throw new IllegalStateException("Free cell count out of step");
+    }
+
+    private int tileOf(int x, int y) {
+        return (y >> TILE_BITS) * tilesPerRow + (x >> TILE_BITS);
+    }
+
+    private long[] find(int key) {
+        int mask = keys.length - 1;
+        for (int slot = hash(key) & mask; keys[slot] != 0; slot = (slot + 1) & mask) {
+            if (keys[slot] == key + 1) {
+                return tiles[slot];
+            }
+        }
+        return null;
+    }
+
+    private long[] findOrCreate(int key) {
+        int mask = keys.length - 1;
+        int slot = hash(key) & mask;
+        for (; keys[slot] != 0; slot = (slot + 1) & mask) {
+            if (keys[slot] == key + 1) {
+                return tiles[slot];
+            }
+        }
+        long[] tile = new long[TILE + 1];
+        keys[slot] = key + 1;
+        tiles[slot] = tile;
+        if (++tileCount * 2 > keys.length) {
+            grow();
+        }
+        return tile;
+    }
+
+    // Removes the tile and shifts back the entries that probed past it
+    private void drop(int key) {
+        int mask = keys.length - 1;
+        int hole = hash(key) & mask;
+        while (keys[hole] != key + 1) {
+            hole = (hole + 1) & mask;
+        }
+        for (int next = (hole + 1) & mask; keys[next] != 0; next = (next + 1) & mask) {
+            int home = hash(keys[next] - 1) & mask;
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                keys[hole] = keys[next];
+                tiles[hole] = tiles[next];
+                hole = next;
+            }
+        }
+        keys[hole] = 0;
+        tiles[hole] = null;
+        tileCount--;
+    }
+
+    private void grow() {
+        int[] oldKeys = keys;
+        long[][] oldTiles = tiles;
+        keys = new int[oldKeys.length * 2];
+        tiles = new long[oldKeys.length * 2][];
+        int mask = keys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0) {
+                int slot = hash(oldKeys[i] - 1) & mask;
+                while (keys[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                tiles[slot] = oldTiles[i];
+            }
+        }
+    }
+
+    private static int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ h >>> 16;
+    }
+}
@@ -0,0 +1,146 @@
+package org.example;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static org.junit.Assert.*;
+
+public class DiffRendererTest {
+
+    // A terminal that only understands cursor moves; colors and other sequences are ignored
+    private static final class Screen {
+        final char[][] cells = new char[40][40];
+        int row;
+        int column;
+
+        void apply(String output) {
+            for (int i = 0; i < output.length(); i++) {
+                char c = output.charAt(i);
+                if (c == '\u001b') {
+                    int end = i + 2;
+                    while (!Character.isLetter(output.charAt(end))) {
+                        end++;
+                    }
+                    if (output.charAt(end) == 'H') {
+                        String[] position = output.substring(i + 2, end).split(";");
+                        row = Integer.parseInt(position[0]) - 1;
+                        column = Integer.parseInt(position[1]) - 1;
+                    }
+                    i = end;
+                } else {
+                    cells[row][column++] = c;
+                }
+            }
+        }
+
+        // The board as drawn inside the border, one string per row
+        String board(int size) {
+            StringBuilder out = new StringBuilder();
+            for (int y = 0; y < size; y++) {
+                out.append(new String(cells[y + 1], 1, size).replace('\0', ' ')).append('\n');
+            }
+            return out.toString();
+        }
+    }
+
+    private static String expected(Game game) {
+        int size = game.board.size;
+        char[][] rows = new char[size][size];
+        for (char[] row : rows) {
+            Arrays.fill(row, ' ');
+        }
+        for (int i = game.snake.body.size() - 1; i >= 0; i--) {
+            Coordinates segment = game.snake.body.get(i);
+            rows[segment.y][segment.x] = i == 0 ? '@' : 'o';
+        }
+        rows[game.food.position.y][game.food.position.x] = '*';
+        StringBuilder out = new StringBuilder();
+        for (char[] row : rows) {
+            out.append(row).append('\n');
+        }
+        return out.toString();
+    }
+
+    @Test
+    public void testScreenMatchesTheGameAfterEveryFrame() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DiffRenderer renderer = new DiffRenderer(Channels.newChannel(bytes), 12);
+        Game game = new Game(12, "easy", new SplittableRandom(5));
+        game.snake.body.get(0).x = 6;
+        game.snake.body.get(0).y = 6;
+        game.snake.grow(4);
+        Controller controller = Controller.named("bfs", 12);
+        Screen screen = new Screen();
+
+        for (int tick = 0; tick < 200 && !game.gameOver && game.bonusFood == null; tick++) {
+            renderer.render(game);
+            screen.apply(new String(bytes.toByteArray(), StandardCharsets.US_ASCII));
+            bytes.reset();
+            assertEquals(expected(game), screen.board(12));
+
+            int direction = controller.steer(game);
+            if (direction >= 0) {
+                game.snake.turn(direction);
+            }
+            game.updateGame();
+        }
+        assertTrue(renderer.frames() > 50);
+    }
+
+    @Test
+    public void testOnlyChangedCellsAreWritten() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DiffRenderer renderer = new DiffRenderer(Channels.newChannel(bytes), 10);
+        Game game = new Game(10, "easy");
+        game.snake.body.get(0).x = 5;
+        game.snake.body.get(0).y = 5;
+        game.snake.grow(2);
+        game.snake.move();
+        game.snake.move();
+        game.food.position = new Coordinates(0, 0);
+        renderer.render(game);
+        long cells = renderer.cellsWritten();
+
+        // Nothing moved: nothing is sent
+        bytes.reset();
+        renderer.render(game);
+        assertEquals(0, bytes.size());
+        assertEquals(cells, renderer.cellsWritten());
+
+        // The new head, the old head turning into body, and the vacated tail
+        game.snake.move();
+        renderer.render(game);
+        assertEquals(cells + 3, renderer.cellsWritten());
+    }
+
+    @Test
+    public void testBonusColorsGivenByName() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DiffRenderer renderer = new DiffRenderer(Channels.newChannel(bytes), 10);
+        Game game = new Game(10, "easy", new SplittableRandom(2));
+        Screen screen = new Screen();
+
+        game.spawnBonusFood("golden");
+        renderer.render(game);
+        screen.apply(new String(bytes.toByteArray(), StandardCharsets.US_ASCII));
+        Coordinates gold = game.bonusFood.position;
+        assertEquals("golden", game.bonusFood.color);
+        assertEquals('$', screen.cells[gold.y + 1][gold.x + 1]);
+
+        // A name that is no color still spawns, as a plain blue bonus
+        game.bonusFood = null;
+        bytes.reset();
+        game.spawnBonusFood("teal");
+        renderer.render(game);
+        screen.apply(new String(bytes.toByteArray(), StandardCharsets.US_ASCII));
+        Coordinates teal = game.bonusFood.position;
+        assertEquals("teal", game.bonusFood.color);
+        assertEquals('+', screen.cells[teal.y + 1][teal.x + 1]);
+        assertEquals(BlockColor.RED, new Food("crimson").blockColor);
+    }
+}
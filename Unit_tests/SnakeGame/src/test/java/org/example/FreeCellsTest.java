@@ -0,0 +1,36 @@
+package org.example;
+
+import org.junit.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.Assert.*;
+
+public class FreeCellsTest {
+
+    @Test
+    public void testSwapRemoveKeepsIndexConsistent() {
+        FreeCells free = new FreeCells(5);
+        free.remove(1);
+        free.remove(4);
+        free.remove(1);
+        free.add(4);
+
+        assertEquals(4, free.size());
+        assertFalse(free.contains(1));
+        assertTrue(free.contains(4));
+        SplittableRandom random = new SplittableRandom(2);
+        for (int i = 0; i < 50; i++) {
+            assertNotEquals(1, free.random(random));
+        }
+    }
+
+    @Test
+    public void testFullBoard() {
+        FreeCells free = new FreeCells(2);
+        free.remove(0);
+        free.remove(1);
+
+        assertEquals(-1, free.random(new SplittableRandom(1)));
+    }
+}
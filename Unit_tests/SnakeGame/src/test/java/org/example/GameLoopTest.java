@@ -0,0 +1,88 @@
+package org.example;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class GameLoopTest {
+
+    private static final long STEP = TimeUnit.MILLISECONDS.toNanos(10);
+
+    // Time only passes when the loop sleeps or an update says so
+    private static final class FakeClock implements GameLoop.Clock {
+        long now;
+
+        @Override
+        public long nanoTime() {
+            return now;
+        }
+
+        @Override
+        public void sleepUntil(long deadline) {
+            now = Math.max(now, deadline);
+        }
+    }
+
+    @Test
+    public void testUpdateTimeDoesNotDrift() {
+        FakeClock clock = new FakeClock();
+        GameLoop loop = new GameLoop(clock, 3 * STEP, GameLoop.Policy.CATCH_UP, 5);
+        List<Long> starts = new ArrayList<>();
+
+        loop.run(() -> STEP, () -> {
+            starts.add(clock.now / STEP);
+            // Each update takes 40% of a step
+            clock.now += STEP * 4 / 10;
+        }, () -> { }, () -> starts.size() < 5);
+
+        assertEquals(Arrays.asList(1L, 2L, 3L, 4L, 5L), starts);
+        assertEquals(0, loop.metrics().maxJitterNanos);
+        assertEquals(0, loop.metrics().missedDeadlines);
+        assertEquals(2, loop.metrics().renders);
+        assertEquals(5 * STEP, loop.gameTimeNanos());
+    }
+
+    @Test
+    public void testCatchUpRunsMissedUpdates() {
+        FakeClock clock = new FakeClock();
+        GameLoop loop = new GameLoop(clock, STEP, GameLoop.Policy.CATCH_UP, 5);
+        int[] updates = new int[1];
+
+        loop.run(() -> STEP, () -> {
+            if (++updates[0] == 2) {
+                clock.now += 35 * STEP / 10;
+            }
+        }, () -> { }, () -> clock.now < 10 * STEP);
+
+        // The stall makes the updates due at 30 and 40 ms miss their deadline; they run at 55 ms
+        // together with the one due at 50 ms, and the loop is back on schedule from 60 ms
+        assertEquals(2, loop.metrics().missedDeadlines);
+        assertEquals(0, loop.metrics().skippedUpdates);
+        assertEquals(9, loop.metrics().updates);
+        assertEquals(25 * STEP / 10, loop.metrics().maxJitterNanos);
+    }
+
+    @Test
+    public void testSkipDropsMissedUpdates() {
+        FakeClock clock = new FakeClock();
+        GameLoop loop = new GameLoop(clock, STEP, GameLoop.Policy.SKIP, 5);
+        int[] updates = new int[1];
+
+        loop.run(() -> STEP, () -> {
+            if (++updates[0] == 2) {
+                clock.now += 35 * STEP / 10;
+            }
+        }, () -> { }, () -> clock.now < 10 * STEP);
+
+        // Only the update due at 30 ms runs at 55 ms; those due at 40 and 50 ms are dropped
+        assertEquals(1, loop.metrics().missedDeadlines);
+        assertEquals(2, loop.metrics().skippedUpdates);
+        assertEquals(7, loop.metrics().updates);
+        assertEquals(7 * STEP, loop.gameTimeNanos());
+    }
+}
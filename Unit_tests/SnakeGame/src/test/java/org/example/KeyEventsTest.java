@@ -0,0 +1,93 @@
+package org.example;
+
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+public class KeyEventsTest {
+
+    @Test
+    public void testDrainsKeysUpToTimeInOrder() {
+        KeyEvents events = new KeyEvents(8);
+        events.offer('a', 10);
+        events.offer('b', 20);
+        events.offer('c', 30);
+        StringBuilder seen = new StringBuilder();
+
+        assertEquals(2, events.drain(25, (key, time) -> seen.append(key)));
+        assertEquals("ab", seen.toString());
+        assertEquals(1, events.size());
+        assertEquals(1, events.drain(Long.MAX_VALUE, (key, time) -> seen.append(key)));
+        assertEquals("abc", seen.toString());
+    }
+
+    @Test
+    public void testFullQueueDropsKeys() {
+        KeyEvents events = new KeyEvents(4);
+        for (int i = 0; i < 6; i++) {
+            events.offer((char) ('a' + i), i);
+        }
+        StringBuilder seen = new StringBuilder();
+        events.drain(Long.MAX_VALUE, (key, time) -> seen.append(key));
+
+        assertEquals("abcd", seen.toString());
+        assertEquals(2, events.dropped());
+    }
+
+    @Test
+    public void testKeysFromAnotherThreadArriveInOrder() throws InterruptedException {
+        KeyEvents events = new KeyEvents(16);
+        int total = 100_000;
+        Thread producer = new Thread(() -> {
+            for (int i = 0; i < total; i++) {
+                while (!events.offer((char) i, i)) {
+                    Thread.yield();
+                }
+            }
+        });
+        producer.start();
+        AtomicLong next = new AtomicLong();
+        while (next.get() < total) {
+            int drained = events.drain(Long.MAX_VALUE, (key, time) -> {
+                assertEquals(next.get(), time);
+                assertEquals((char) next.getAndIncrement(), key);
+            });
+            if (drained == 0) {
+                Thread.yield();
+            }
+        }
+        producer.join();
+        assertEquals(0, events.size());
+    }
+
+    // Two turns pressed within one tick: without buffering the second overrides the first
+    @Test
+    public void testQuickTurnsAreNotCollapsed() {
+        Game game = new Game(10, "easy");
+        game.snake.body.get(0).x = 5;
+        game.snake.body.get(0).y = 5;
+        game.food.position = new Coordinates(9, 9);
+
+        game.handleKeyPress('a');
+        game.handleKeyPress('s');
+        game.updateGame();
+        assertEquals(4, game.snake.body.get(0).x);
+        assertEquals(5, game.snake.body.get(0).y);
+
+        game.updateGame();
+        assertEquals(4, game.snake.body.get(0).x);
+        assertEquals(6, game.snake.body.get(0).y);
+        assertFalse(game.gameOver);
+    }
+
+    @Test
+    public void testBufferedReversalIsIgnored() {
+        Snake snake = new Snake(10);
+        snake.turn(Snake.LEFT);
+        snake.turn(Snake.RIGHT);
+        snake.move();
+        assertEquals("LEFT", snake.direction);
+    }
+}
@@ -0,0 +1,57 @@
+package org.example;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void testPercentilesWithinOneSixteenth() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long v = 1; v <= 1_000_000; v++) {
+            histogram.record(v * 1000);
+        }
+
+        assertEquals(1_000_000, histogram.count());
+        assertEquals(1_000_000_000L, histogram.max());
+        for (double p : new double[]{1, 50, 90, 99, 99.9}) {
+            double expected = p * 1e7;
+            assertEquals("p" + p, expected, histogram.percentile(p), expected / 16);
+        }
+        assertEquals(1_000_000_000L, histogram.percentile(100));
+    }
+
+    @Test
+    public void testSmallValuesAreExact() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int v = 0; v < 10; v++) {
+            histogram.record(v);
+        }
+        histogram.record(-5);
+
+        assertEquals(0, histogram.percentile(10));
+        assertEquals(4, histogram.percentile(50));
+        assertEquals(9, histogram.percentile(100));
+    }
+
+    @Test
+    public void testMergeAddsCounts() {
+        LatencyHistogram a = new LatencyHistogram();
+        LatencyHistogram b = new LatencyHistogram();
+        for (int i = 0; i < 90; i++) {
+            a.record(1000);
+        }
+        for (int i = 0; i < 10; i++) {
+            b.record(1_000_000);
+        }
+        a.merge(b);
+
+        assertEquals(100, a.count());
+        assertEquals(1000, a.percentile(90), 1000 / 16);
+        assertEquals(1_000_000, a.percentile(91), 1_000_000 / 16);
+        // Past the last bucket everything is counted at the top
+        a.record(Long.MAX_VALUE);
+        assertEquals(Long.MAX_VALUE, a.max());
+    }
+}
@@ -0,0 +1,95 @@
+package org.example;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.Assert.*;
+
+public class ReplayLogTest {
+
+    private static final int SNAPSHOT_EVERY = 50;
+
+    private static String describe(Game game) {
+        StringBuilder out = new StringBuilder();
+        for (Coordinates segment : game.snake.body) {
+            out.append(segment.x).append(',').append(segment.y).append(' ');
+        }
+        out.append("| food ").append(game.food.position.x).append(',').append(game.food.position.y);
+        if (game.bonusFood != null) {
+            out.append(" | ").append(game.bonusFood.color).append(' ')
+                    .append(game.bonusFood.position.x).append(',').append(game.bonusFood.position.y);
+        }
+        return out.append(" | eaten ").append(game.foodEaten).append(" speed ").append(game.snake.speed)
+                .append(' ').append(game.snake.direction).append(game.paused ? " paused" : "").toString();
+    }
+
+    // Plays a BFS-steered game with a pause from tick 10 to 20, keeping the state after every tick
+    private static byte[] record(List<String> states) {
+        GameTime time = new GameTime();
+        Game game = new Game(10, "hard", new SplittableRandom(11), time);
+        Controller controller = Controller.named("bfs", 10);
+        ReplayLog.Recorder recorder = new ReplayLog.Recorder(game, SNAPSHOT_EVERY);
+        states.add(describe(game));
+        for (int tick = 0; tick < 2000 && !game.gameOver; tick++) {
+            if (tick == 10 || tick == 20) {
+                recorder.key('p');
+                game.handleKeyPress('p');
+            }
+            int direction = controller.steer(game);
+            if (direction >= 0 && direction != game.snake.heading()) {
+                char key = "wdsa".charAt(direction);
+                recorder.key(key);
+                game.handleKeyPress(key);
+            }
+            time.update(game);
+            recorder.tick();
+            states.add(describe(game));
+        }
+        return recorder.finish();
+    }
+
+    @Test
+    public void testReplayReachesTheRecordedState() {
+        List<String> states = new ArrayList<>();
+        ReplayLog log = ReplayLog.read(record(states));
+
+        assertEquals(states.size() - 1, log.ticks);
+        assertTrue(log.ticks > 2 * SNAPSHOT_EVERY);
+        assertEquals(states.get(states.size() - 1), describe(log.replay()));
+    }
+
+    @Test
+    public void testSeekRestoresAnyTick() {
+        List<String> states = new ArrayList<>();
+        ReplayLog log = ReplayLog.read(record(states));
+
+        for (int tick : new int[]{0, 1, 10, 15, 49, 50, 51, 99, 100, log.ticks - 1, log.ticks}) {
+            assertEquals("tick " + tick, states.get(tick), describe(log.seek(tick)));
+        }
+    }
+
+    @Test
+    public void testLogIsCompact() {
+        List<String> states = new ArrayList<>();
+        byte[] log = record(states);
+
+        // Keys take 3 bytes; a snapshot about 2 bytes per segment
+        assertTrue(log.length + " bytes", log.length < 40 * states.size() / SNAPSHOT_EVERY * 2 + 3 * states.size());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testTamperedLogIsDetected() {
+        byte[] log = record(new ArrayList<>());
+        // Drop the first pause, so the snake moves where the recording stood still
+        for (int i = 0; i + 2 < log.length; i++) {
+            if (log[i] == 'k' && log[i + 2] == 'p') {
+                log[i + 2] = 'x';
+                break;
+            }
+        }
+        ReplayLog.read(log).replay();
+    }
+}
@@ -0,0 +1,74 @@
+package org.example;
+
+import org.junit.Test;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+
+public class SnakeArenaTest {
+
+    @Test
+    public void testHamiltonianCycleVisitsEveryCell() {
+        Game game = new Game(6, "easy");
+        Controller controller = Controller.named("hamiltonian", 6);
+        Coordinates head = game.snake.body.get(0);
+        boolean[] visited = new boolean[36];
+        for (int step = 0; step < 36; step++) {
+            assertFalse(visited[head.y * 6 + head.x]);
+            visited[head.y * 6 + head.x] = true;
+            int d = controller.steer(game);
+            head.x += Snake.DX[d];
+            head.y += Snake.DY[d];
+        }
+
+        assertEquals(0, head.x);
+        assertEquals(0, head.y);
+    }
+
+    @Test
+    public void testHamiltonianFillsTheBoard() {
+        SnakeArena.Stats stats = new SnakeArena.Stats();
+        SnakeArena.Outcome outcome = SnakeArena.play(Controller.named("hamiltonian", 6), 6, Difficulty.HARD,
+                new SplittableRandom(3), stats);
+
+        assertEquals(SnakeArena.Outcome.FILLED, outcome);
+        assertEquals(36, stats.length.percentile(100));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testHamiltonianNeedsAnEvenBoard() {
+        Controller.named("hamiltonian", 7);
+    }
+
+    @Test
+    public void testBfsOutscoresGreedy() {
+        ForkJoinPool pool = new ForkJoinPool(1);
+        try {
+            SnakeArena.Stats greedy = SnakeArena.simulate("greedy", 10, Difficulty.EASY, 200, new SplittableRandom(1), pool);
+            SnakeArena.Stats bfs = SnakeArena.simulate("bfs", 10, Difficulty.EASY, 200, new SplittableRandom(1), pool);
+
+            assertEquals(200, bfs.games());
+            assertTrue(bfs.score.mean() > greedy.score.mean());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testBatchesAddUpToEveryGame() {
+        // 100 games make four batches
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            SnakeArena.Stats stats = SnakeArena.simulate("hamiltonian", 6, Difficulty.HARD, 100, new SplittableRandom(9), pool);
+
+            assertEquals(100, stats.games());
+            assertEquals(100, stats.ticks.count());
+            assertEquals(100, stats.outcomes[SnakeArena.Outcome.FILLED.ordinal()]);
+            assertEquals(36, stats.length.percentile(0));
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
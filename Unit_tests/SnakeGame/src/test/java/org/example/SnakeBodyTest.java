@@ -0,0 +1,139 @@
+package org.example;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.Assert.*;
+
+public class SnakeBodyTest {
+
+    private static String cell(Coordinates segment) {
+        return segment.x + "," + segment.y;
+    }
+
+    private static List<String> cells(List<Coordinates> body) {
+        List<String> cells = new ArrayList<>();
+        for (Coordinates segment : body) {
+            cells.add(cell(segment));
+        }
+        return cells;
+    }
+
+    @Test
+    public void testMoveAndGrowWrapAroundTheRing() {
+        Snake snake = new Snake(50);
+        snake.body.set(0, new Coordinates(0, 40));
+        snake.grow(20);
+        for (int i = 0; i < 30; i++) {
+            snake.move();
+        }
+
+        assertEquals(21, snake.body.size());
+        assertEquals("0,10", cells(snake.body).get(0));
+        assertEquals("0,30", cells(snake.body).get(20));
+        assertTrue(snake.body.isOccupied(0, 20));
+        assertFalse(snake.body.isOccupied(0, 31));
+        assertFalse(snake.body.headOverlaps());
+    }
+
+    @Test
+    public void testMoveReusesTheTailSlot() {
+        // 16 segments fill the ring, so the new head goes into the slot the tail leaves
+        Snake snake = new Snake(20);
+        snake.body.set(0, new Coordinates(19, 19));
+        snake.grow(15);
+        for (int i = 0; i < 15; i++) {
+            snake.move();
+        }
+        Coordinates tail = snake.body.get(15);
+
+        snake.move();
+
+        assertEquals(16, snake.body.size());
+        // The dropped tail object is left where it was
+        assertEquals("19,19", cell(tail));
+        assertEquals("19,3", cell(snake.body.head()));
+        assertEquals("19,18", cell(snake.body.get(15)));
+        assertFalse(snake.body.isOccupied(19, 19));
+        assertEquals(20 * 20 - 16, snake.body.freeCells());
+    }
+
+    @Test
+    public void testSegmentsHeldOutsideDoNotMove() {
+        Snake snake = new Snake(10);
+        Coordinates food = new Coordinates(4, 4);
+        snake.body.set(0, food);
+        Coordinates before = snake.body.get(0);
+
+        snake.move();
+
+        assertSame(food, before);
+        assertEquals("4,4", cell(before));
+        assertEquals("4,3", cell(snake.body.head()));
+        assertNotEquals(before, snake.body.get(0));
+        assertFalse(snake.body.isOccupied(4, 4));
+    }
+
+    @Test
+    public void testRunningIntoItself() {
+        Snake snake = new Snake(20);
+        snake.body.set(0, new Coordinates(5, 5));
+        snake.grow(4);
+        for (String direction : Arrays.asList("UP", "RIGHT", "DOWN", "LEFT")) {
+            snake.direction = direction;
+            snake.move();
+        }
+
+        assertTrue(snake.body.headOverlaps());
+    }
+
+    @Test
+    public void testHeadMovedInPlaceIsTracked() {
+        Game game = new Game(20, "easy");
+        game.snake.body.get(0).x = 5;
+        game.snake.body.get(0).y = 5;
+
+        assertTrue(game.snake.body.head().x == 5 && game.snake.body.isOccupied(5, 5));
+        assertFalse(game.snake.body.isOccupied(0, 0));
+    }
+
+    @Test
+    public void testListChangesUpdateTheGrid() {
+        SnakeBody body = new SnakeBody(10);
+        body.add(new Coordinates(1, 1));
+        body.add(0, new Coordinates(2, 1));
+        body.add(1, new Coordinates(3, 1));
+        body.add(new Coordinates(-1, 0));
+
+        assertEquals(Arrays.asList("2,1", "3,1", "1,1", "-1,0"), cells(body));
+        body.remove(1);
+        assertFalse(body.isOccupied(3, 1));
+        body.clear();
+        assertTrue(body.isEmpty());
+        assertFalse(body.isOccupied(1, 1));
+    }
+
+    @Test
+    public void testFoodOnlyLandsOnTheFreeCell() {
+        SnakeBody body = new SnakeBody(3);
+        for (int cell = 0; cell < 9; cell++) {
+            if (cell != 7) {
+                body.add(new Coordinates(cell % 3, cell / 3));
+            }
+        }
+        SplittableRandom random = new SplittableRandom(5);
+
+        assertEquals(1, body.freeCells());
+        for (int i = 0; i < 20; i++) {
+            assertEquals("1,2", cell(body.randomFreeCell(random, null)));
+        }
+        assertNull(body.randomFreeCell(random, new Coordinates(1, 2)));
+        body.remove(0);
+        assertEquals("0,0", cell(body.randomFreeCell(random, new Coordinates(1, 2))));
+        assertEquals(2, body.freeCells());
+    }
+}
@@ -0,0 +1,109 @@
+package org.example;
+
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class SnakeServerTest {
+
+    private static Socket connect(SnakeServer host) throws IOException {
+        Socket socket = new Socket(InetAddress.getLoopbackAddress(), host.port());
+        socket.setSoTimeout(5000);
+        return socket;
+    }
+
+    private static BufferedReader reader(Socket socket) throws IOException {
+        return new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+    }
+
+    private static void send(Socket socket, String text) throws IOException {
+        OutputStream out = socket.getOutputStream();
+        out.write(text.getBytes(StandardCharsets.US_ASCII));
+        out.flush();
+    }
+
+    @Test
+    public void testSessionsTickIndependentlyAndTakeKeys() throws IOException {
+        // Hard at 20x speed: 40 ticks a second
+        SnakeServer host = new SnakeServer(1, 20);
+        List<Socket> sockets = new ArrayList<>();
+        try {
+            List<BufferedReader> readers = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                Socket socket = connect(host);
+                sockets.add(socket);
+                readers.add(reader(socket));
+                // The snake starts in the top left corner, heading up
+                send(socket, "START 30 hard\nd");
+                assertTrue(readers.get(i).readLine().startsWith("OK "));
+            }
+            for (BufferedReader reader : readers) {
+                for (int tick = 1; tick <= 3; tick++) {
+                    assertEquals(String.valueOf(tick), reader.readLine().split(" ")[0]);
+                }
+            }
+
+            // Pausing the first session freezes its snake, whose ticks go on
+            send(sockets.get(0), "p\n");
+            String last = null;
+            int still = 0;
+            for (int i = 0; i < 40 && still < 3; i++) {
+                String[] fields = readers.get(0).readLine().split(" ", 2);
+                still = fields[1].equals(last) ? still + 1 : 0;
+                last = fields[1];
+            }
+            assertEquals(3, still);
+            String[] other = readers.get(1).readLine().split(" ");
+            String[] next = readers.get(1).readLine().split(" ");
+            assertNotEquals(other[1] + other[2], next[1] + next[2]);
+            assertEquals(3, host.liveSessions());
+        } finally {
+            for (Socket socket : sockets) {
+                socket.close();
+            }
+            host.close();
+        }
+
+        assertEquals(0, host.liveSessions());
+        assertTrue(host.report(), host.report().startsWith("3 sessions"));
+    }
+
+    @Test
+    public void testMalformedStartIsRefused() throws IOException {
+        try (SnakeServer host = new SnakeServer(1, 1); Socket socket = connect(host)) {
+            send(socket, "START 5000 hard\n");
+            BufferedReader reader = reader(socket);
+
+            assertTrue(reader.readLine().startsWith("ERR "));
+            assertNull(reader.readLine());
+        }
+    }
+
+    @Test
+    public void testLoadClientKeepsManySessionsBusy() throws IOException {
+        SnakeServer host = new SnakeServer(2, 10);
+        String traffic;
+        try (LoadClient client = new LoadClient(host.port(), 50, 20, "hard", new SplittableRandom(3))) {
+            traffic = client.run(TimeUnit.MILLISECONDS.toNanos(1500));
+        } finally {
+            host.close();
+        }
+
+        // 50 sessions at 20 ticks a second for over a second
+        assertTrue(host.report(), host.report().startsWith("50 sessions"));
+        long lines = Long.parseLong(traffic.split(" ")[3]);
+        assertTrue(traffic, lines > 50 * 20);
+    }
+}
@@ -0,0 +1,112 @@
+package org.example;
+
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import static org.junit.Assert.*;
+
+public class TiledOccupancyTest {
+
+    @Test
+    public void testCountsMatchTheDenseGrid() {
+        // 100 is not a multiple of the tile size, so the last row and column of tiles are partial
+        DenseOccupancy dense = new DenseOccupancy(100);
+        TiledOccupancy tiled = new TiledOccupancy(100);
+        SplittableRandom random = new SplittableRandom(4);
+        int[] taken = new int[5000];
+        int count = 0;
+        for (int i = 0; i < 50_000; i++) {
+            if (count > 0 && (count == taken.length || random.nextBoolean())) {
+                int at = random.nextInt(count);
+                dense.remove(taken[at]);
+                tiled.remove(taken[at]);
+                taken[at] = taken[--count];
+            } else {
+                // Mostly near the last cells taken, sometimes on top of them
+                int cell = count == 0 ? random.nextInt(10_000)
+                        : Math.floorMod(taken[count - 1] + random.nextInt(-3, 4), 10_000);
+                dense.add(cell);
+                tiled.add(cell);
+                taken[count++] = cell;
+            }
+            int probe = random.nextInt(10_000);
+            assertEquals(dense.count(probe), tiled.count(probe));
+            assertEquals(dense.freeCells(), tiled.freeCells());
+        }
+        while (count > 0) {
+            tiled.remove(taken[--count]);
+        }
+        assertEquals(10_000, tiled.freeCells());
+        assertEquals(0, tiled.tiles());
+    }
+
+    @Test
+    public void testNearlyFullBoardDrawsEveryFreeCell() {
+        TiledOccupancy tiled = new TiledOccupancy(70);
+        Set<Integer> free = new HashSet<>();
+        for (int cell = 0; cell < 70 * 70; cell++) {
+            if (cell == 5 || cell == 69 * 70 + 69 || cell == 2000) {
+                free.add(cell);
+            } else {
+                tiled.add(cell);
+            }
+        }
+        SplittableRandom random = new SplittableRandom(9);
+        Set<Integer> drawn = new HashSet<>();
+        for (int i = 0; i < 100; i++) {
+            drawn.add(tiled.randomFree(random, 2000));
+        }
+
+        free.remove(2000);
+        assertEquals(free, drawn);
+        tiled.add(5);
+        tiled.add(69 * 70 + 69);
+        assertEquals(-1, tiled.randomFree(random, 2000));
+    }
+
+    @Test
+    public void testMemoryFollowsTheSnakeOnAHugeBoard() {
+        int size = 40_000;
+        TiledOccupancy tiled = new TiledOccupancy(size);
+        Snake snake = new Snake(size);
+        snake.body = new SnakeBody(size, tiled);
+        snake.body.add(new Coordinates(size / 2, size / 2));
+        snake.grow(9_999);
+        for (int i = 0; i < 30_000; i++) {
+            // Back and forth 200 cells wide, one row further down each time
+            int leg = i / 201;
+            int d = i % 201 == 200 ? Snake.DOWN : leg % 2 == 0 ? Snake.RIGHT : Snake.LEFT;
+            snake.direction = Snake.DIRECTIONS[d];
+            snake.move();
+            assertFalse(snake.body.headOverlaps());
+        }
+
+        assertEquals(10_000, snake.body.size());
+        assertEquals(size * size - 10_000, snake.body.freeCells());
+        // The last 50 rows, 200 wide, touch at most 4 x 2 tiles, or 3 rows of tiles across a boundary
+        assertTrue(tiled.tiles() + " tiles", tiled.tiles() <= 12);
+        SplittableRandom random = new SplittableRandom(2);
+        for (int i = 0; i < 1000; i++) {
+            Coordinates cell = snake.body.randomFreeCell(random, null);
+            assertFalse(snake.body.isOccupied(cell.x, cell.y));
+        }
+    }
+
+    @Test
+    public void testHugeBoardGame() {
+        Game game = new Game(Occupancy.MAX_SIZE, "hard", new SplittableRandom(1));
+        game.snake.body.get(0).x = 100;
+        game.snake.body.get(0).y = 100;
+        game.food.position = new Coordinates(100, 99);
+        game.updateGame();
+
+        assertEquals(1, game.foodEaten);
+        assertNotEquals(new Coordinates(100, 99), game.food.position);
+        game.updateGame();
+        assertEquals(2, game.snake.body.size());
+        assertFalse(game.gameOver);
+    }
+}